@@ -1,18 +1,65 @@
 package GeneticAlgo;
 
+import Model.ObjectivesPoint;
+
+import java.util.concurrent.atomic.AtomicLong;
+
 class Chromosome {
+    private static final AtomicLong totalObjectivesRecomputations = new AtomicLong();
+
     private Gene[] genesList;
+    private int maxTime;
+    private int totalMautKm;
+    private boolean objectivesDirty;
+    private int objectivesRecomputations;
 
     public Chromosome(Gene[] genesList) {
-        this.genesList = genesList;
+        setGenesList(genesList);
     }
 
-    public int getMaxTime() {
+    /**
+     * Marks the cached objective vector as outdated. Called by the genes of this chromosome when their route or vehicle changes.
+     */
+    void markObjectivesDirty() {
+        objectivesDirty = true;
+    }
+
+    private void recomputeObjectivesIfDirty() {
+        if (!objectivesDirty) {
+            return;
+        }
         int max = 0;
+        int sum = 0;
         for (int i = 0; i < genesList.length; i++) {
             max = Math.max(max, genesList[i].getTotalTime());
+            sum = sum + genesList[i].getTotalMautKm();
         }
-        return max;
+        maxTime = max;
+        totalMautKm = sum;
+        objectivesDirty = false;
+        objectivesRecomputations++;
+        totalObjectivesRecomputations.incrementAndGet();
+    }
+
+    public int getMaxTime() {
+        recomputeObjectivesIfDirty();
+        return maxTime;
+    }
+
+    /**
+     * @return the objective vector (total maut km, max time) of this chromosome
+     */
+    public ObjectivesPoint getObjectivesPoint() {
+        recomputeObjectivesIfDirty();
+        return new ObjectivesPoint(totalMautKm, maxTime);
+    }
+
+    public int getObjectivesRecomputations() {
+        return objectivesRecomputations;
+    }
+
+    public static long getTotalObjectivesRecomputations() {
+        return totalObjectivesRecomputations.get();
     }
 
     public int getTotalDeployCost() {
@@ -24,11 +71,8 @@ class Chromosome {
     }
 
     public int getTotalMautKM() {
-        int sum = 0;
-        for (int i = 0; i < genesList.length; i++) {
-            sum = sum + genesList[i].getTotalMautKm();
-        }
-        return sum;
+        recomputeObjectivesIfDirty();
+        return totalMautKm;
     }
 
     public Gene[] getGenesList() {
@@ -37,19 +81,22 @@ class Chromosome {
 
     public void setGenesList(Gene[] genesList) {
         this.genesList = genesList;
+        for (int i = 0; i < genesList.length; i++) {
+            genesList[i].setOwner(this);
+        }
+        this.objectivesDirty = true;
     }
 
-    public Chromosome clone() {
-        Gene[] geneClone = new Gene[genesList.length];
-        for(int i = 0 ; i < genesList.length ; i++) {
-            Gene gene = new Gene(genesList[i].getDepot(),genesList[i].getVehicleIndex(),genesList[i].getDeployCost());
-            gene.setTotalMautKm(genesList[i].getTotalMautKm());
-            gene.setTotalTime(genesList[i].getTotalTime());
-            gene.setRoute(genesList[i].getRoute());
-            gene.setTransportsIndicesList(genesList[i].getTransportsIndicesList());
-            geneClone[i] = gene;
+    /**
+     * Creates an independent copy of this chromosome. Its genes, routes and transports can be changed without affecting this chromosome.
+     * The routes and transports are copied on write, so a copy costs O(genes) and only the changed routes are copied.
+     */
+    public Chromosome copy() {
+        Gene[] genesCopy = new Gene[genesList.length];
+        for (int i = 0; i < genesList.length; i++) {
+            genesCopy[i] = genesList[i].clone();
         }
-        return new Chromosome(geneClone);
+        return new Chromosome(genesCopy);
     }
 
     public String toString() {
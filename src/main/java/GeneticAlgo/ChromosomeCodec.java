@@ -0,0 +1,183 @@
+package GeneticAlgo;
+
+import Model.Solution;
+import Model.VehicleRoute;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of chromosomes, which are sent between solver processes.
+ * <p>
+ * Layout (big endian ints): count of chromosomes, then for every chromosome its total maut km, max time and count of genes,
+ * then for every gene the vehicle index, depot, total time, total maut km, count of stops and the stop nodes
+ * of the route without the depot nodes. A stop node is the transport index for a pickup and its complement for a delivery,
+ * like in {@link Route}.
+ */
+class ChromosomeCodec {
+
+    private ChromosomeCodec() {
+    }
+
+    static byte[] encode(List<Chromosome> chromosomes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(chromosomes.size());
+            for (Chromosome chromosome : chromosomes) {
+                Gene[] genes = chromosome.getGenesList();
+                out.writeInt(chromosome.getTotalMautKM());
+                out.writeInt(chromosome.getMaxTime());
+                out.writeInt(genes.length);
+                for (Gene gene : genes) {
+                    Route route = gene.getRoute();
+                    out.writeInt(gene.getVehicleIndex());
+                    out.writeInt(gene.getDepot());
+                    out.writeInt(gene.getTotalTime());
+                    out.writeInt(gene.getTotalMautKm());
+                    out.writeInt(route.size() - 2);
+                    for (int i = 1; i < route.size() - 1; i++) {
+                        out.writeInt(route.get(i));
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Method to decode chromosomes of the same problem. The vehicle and transport indices are checked against the problem,
+     * then the totals of every route are calculated again and every chromosome is checked for feasibility. A chromosome,
+     * which does not fit the problem or is infeasible, is dropped. Malformed data ends the decoding, the chromosomes decoded
+     * before are kept.
+     *
+     * @param data           encoded chromosomes
+     * @param geneticService service of the problem
+     * @return the valid chromosomes
+     */
+    static ArrayList<Chromosome> decode(byte[] data, GeneticService geneticService) {
+        ArrayList<Chromosome> chromosomes = new ArrayList<>();
+        int droppedCount = 0;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int count = in.readInt();
+            for (int c = 0; c < count; c++) {
+                Chromosome chromosome = decodeChromosome(in, geneticService);
+                if (chromosome != null && geneticService.checkChromosomeFeasibility(chromosome).isFeasible()) {
+                    chromosomes.add(chromosome);
+                }
+                else {
+                    droppedCount++;
+                }
+            }
+        }
+        catch (IOException e) {
+            System.out.println("invalid chromosome encoding: " + e);
+        }
+        if (droppedCount != 0) {
+            System.out.println("dropped " + droppedCount + " chromosomes, which do not fit the problem");
+        }
+        return chromosomes;
+    }
+
+    /**
+     * @return the chromosome with evaluated routes, null if a vehicle, depot or transport does not exist in the problem
+     * @throws IOException if the data is malformed
+     */
+    private static Chromosome decodeChromosome(DataInputStream in, GeneticService geneticService) throws IOException {
+        ProblemContext problem = geneticService.getProblem();
+        in.readInt();
+        in.readInt();
+        int genesCount = in.readInt();
+        // every gene takes at least 5 ints, so a count beyond the remaining data is malformed
+        if (genesCount < 0 || genesCount > in.available() / (5 * Integer.BYTES)) {
+            throw new IOException("invalid count of genes " + genesCount);
+        }
+        Gene[] genes = new Gene[genesCount];
+        boolean fitsProblem = genesCount <= problem.getVehiclesCount();
+        for (int g = 0; g < genes.length; g++) {
+            int vehicleIndex = in.readInt();
+            int depot = in.readInt();
+            in.readInt();
+            in.readInt();
+            int stopsCount = in.readInt();
+            if (stopsCount < 0 || stopsCount > in.available() / Integer.BYTES) {
+                throw new IOException("invalid count of stops " + stopsCount);
+            }
+            if (vehicleIndex < 0 || vehicleIndex >= problem.getVehiclesCount() || problem.getVehicle(vehicleIndex).getDepot() != depot) {
+                fitsProblem = false;
+            }
+            // the deploy cost is not sent, it is taken from the problem
+            Gene gene = new Gene(depot, vehicleIndex, fitsProblem ? problem.getVehicle(vehicleIndex).getFixCost() : 0);
+            Route route = new Route(stopsCount + 2);
+            route.add(Route.DEPOT);
+            for (int i = 0; i < stopsCount; i++) {
+                int node = in.readInt();
+                int transportIndex = Route.transportIndexOf(node);
+                if (transportIndex < 0 || transportIndex >= problem.getTransportsCount()) {
+                    fitsProblem = false;
+                }
+                route.add(node);
+                if (Route.isPickUpNode(node)) {
+                    gene.addToTransportsIndicesList(node);
+                }
+            }
+            route.add(Route.DEPOT);
+            gene.setRoute(route);
+            genes[g] = gene;
+        }
+        if (!fitsProblem) {
+            return null;
+        }
+        for (Gene gene : genes) {
+            gene.setTotalTime(geneticService.caculateTotalTimeOfThisRoute(gene.getVehicleIndex(), gene.getRoute()));
+            gene.setTotalMautKm(geneticService.caculateTotalMautKmOfThisRoute(gene.getVehicleIndex(), gene.getRoute()));
+        }
+        return new Chromosome(genes);
+    }
+
+    /**
+     * Method to decode chromosomes into solutions without the problem, the totals are taken from the encoding.
+     *
+     * @param data encoded chromosomes
+     * @return the solutions
+     */
+    static ArrayList<Solution> decodeSolutions(byte[] data) {
+        ArrayList<Solution> solutions = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int count = in.readInt();
+            for (int c = 0; c < count; c++) {
+                int totalMautKm = in.readInt();
+                int maxTime = in.readInt();
+                int genesCount = in.readInt();
+                ArrayList<VehicleRoute> routes = new ArrayList<>();
+                for (int g = 0; g < genesCount; g++) {
+                    int vehicleIndex = in.readInt();
+                    int depot = in.readInt();
+                    int totalTime = in.readInt();
+                    int routeMautKm = in.readInt();
+                    int stopsCount = in.readInt();
+                    int[] stopTransportIndices = new int[stopsCount];
+                    boolean[] stopIsPickUp = new boolean[stopsCount];
+                    for (int i = 0; i < stopsCount; i++) {
+                        int node = in.readInt();
+                        stopTransportIndices[i] = Route.transportIndexOf(node);
+                        stopIsPickUp[i] = Route.isPickUpNode(node);
+                    }
+                    routes.add(new VehicleRoute(vehicleIndex, depot, stopTransportIndices, stopIsPickUp, totalTime, routeMautKm));
+                }
+                solutions.add(new Solution(routes, totalMautKm, maxTime));
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException("invalid chromosome encoding", e);
+        }
+        return solutions;
+    }
+}
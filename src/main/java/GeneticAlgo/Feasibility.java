@@ -0,0 +1,44 @@
+package GeneticAlgo;
+
+import Model.ConstraintViolation;
+
+/**
+ * Result of a feasibility check: the violated constraint and the index of the vehicle or transport, which violates it.
+ * A feasible result is a shared instance, so a successful check allocates nothing.
+ */
+class Feasibility {
+    static final Feasibility FEASIBLE = new Feasibility(ConstraintViolation.NONE, -1);
+
+    private final ConstraintViolation violation;
+    private final int index;
+
+    private Feasibility(ConstraintViolation violation, int index) {
+        this.violation = violation;
+        this.index = index;
+    }
+
+    /**
+     * @param violation the violated constraint
+     * @param index     index of the vehicle for route and vehicle constraints, otherwise index of the transport
+     */
+    static Feasibility violated(ConstraintViolation violation, int index) {
+        return new Feasibility(violation, index);
+    }
+
+    boolean isFeasible() {
+        return violation == ConstraintViolation.NONE;
+    }
+
+    ConstraintViolation getViolation() {
+        return violation;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return isFeasible() ? "feasible" : violation + " at index " + index;
+    }
+}
@@ -1,22 +1,21 @@
 package GeneticAlgo;
 
-import java.util.ArrayList;
-
 class Gene {
     private int depot;
     private int vehicleIndex;
     private int deployCost;
-    private ArrayList<Integer> transportsIndicesList;
-    private ArrayList<TransportNode> route;
+    private TransportSet transportsIndicesList;
+    private Route route;
     private int totalTime;
     private int totalMautKm;
+    private Chromosome owner;
 
     public Gene(int depot, int vehicleIndex, int deployCost) {
         this.depot = depot;
         this.vehicleIndex = vehicleIndex;
         this.deployCost = deployCost;
-        this.transportsIndicesList = new ArrayList<>();
-        this.route = new ArrayList<>();
+        this.transportsIndicesList = new TransportSet();
+        this.route = Route.emptyRoute(2);
         this.totalMautKm = -1;
         this.totalTime = -1;
     }
@@ -29,26 +28,25 @@ class Gene {
         return vehicleIndex;
     }
 
-    public ArrayList<Integer> getTransportsIndicesList() {
+    public TransportSet getTransportsIndicesList() {
         return transportsIndicesList;
     }
 
-    public void setTransportsIndicesList(ArrayList<Integer> transportsCodesList) {
-        for(int i = 0 ; i < transportsCodesList.size() ; i++) {
-            this.transportsIndicesList.add(transportsCodesList.get(i));
-        }
+    public void setTransportsIndicesList(TransportSet transportsCodesList) {
+        this.transportsIndicesList.addAll(transportsCodesList);
     }
 
     public void addToTransportsIndicesList(int transportCode) {
         this.transportsIndicesList.add(transportCode);
     }
 
-    public ArrayList<TransportNode> getRoute() {
+    public Route getRoute() {
         return route;
     }
 
-    public void setRoute(ArrayList<TransportNode> route) {
+    public void setRoute(Route route) {
         this.route = route;
+        markOwnerDirty();
     }
 
     public int getTotalTime() {
@@ -57,6 +55,7 @@ class Gene {
 
     public void setTotalTime(int totalTime) {
         this.totalTime = totalTime;
+        markOwnerDirty();
     }
 
     public int getDeployCost() {
@@ -65,10 +64,12 @@ class Gene {
 
     public void setDepot(int depot) {
         this.depot = depot;
+        markOwnerDirty();
     }
 
     public void setVehicleIndex(int vehicleIndex) {
         this.vehicleIndex = vehicleIndex;
+        markOwnerDirty();
     }
 
     public void setDeployCost(int deployCost) {
@@ -81,11 +82,30 @@ class Gene {
 
     public void setTotalMautKm(int totalMautKm) {
         this.totalMautKm = totalMautKm;
+        markOwnerDirty();
+    }
+
+    /**
+     * Sets the chromosome, whose cached objective vector depends on this gene.
+     */
+    void setOwner(Chromosome owner) {
+        this.owner = owner;
+    }
+
+    private void markOwnerDirty() {
+        if (owner != null) {
+            owner.markObjectivesDirty();
+        }
     }
+    /**
+     * Creates a copy in O(1), the route and the transports are shared copy on write with this gene.
+     */
     public Gene clone() {
         Gene clone = new Gene(this.depot,this.vehicleIndex,this.getDeployCost());
-        clone.setTransportsIndicesList((ArrayList<Integer>) this.getTransportsIndicesList().clone());
-        clone.setRoute((ArrayList<TransportNode>) this.getRoute().clone());
+        clone.transportsIndicesList = this.transportsIndicesList.copy();
+        clone.setRoute(this.getRoute().copy());
+        clone.setTotalTime(this.getTotalTime());
+        clone.setTotalMautKm(this.getTotalMautKm());
         return clone;
     }
 }
@@ -1,76 +1,587 @@
 package GeneticAlgo;
 
 import Model.ChromosomeKeyObjectiveValue;
+import Model.ConstraintViolation;
+import Model.GenerationSnapshot;
+import Model.IntMatrix;
+import Model.MigrationTopology;
 import Model.ObjectivesPoint;
+import Model.OperatorStatistics;
+import Model.ProblemInstance;
+import Model.Solution;
+import Model.SolverConfig;
+import Model.SurvivalSelectionResult;
 import Model.Transport;
 import Model.Vehicle;
+import Model.VehicleRoute;
+import Service.GenerationReporter;
 import Service.HelperService;
-import com.github.sh0nk.matplotlib4j.Plot;
+import Service.PlotReporter;
 import com.github.sh0nk.matplotlib4j.PythonExecutionException;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static java.lang.Double.NaN;
 
 
-public class GeneticAlgorithm {
+public class GeneticAlgorithm implements AutoCloseable {
+    private static final int MAX_INFEASIBLE_INITIALIZATIONS = 1000;
 
     private final HelperService helperService = new HelperService();
     private GeneticService geneticService = new GeneticService();
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final ArrayList<GenerationReporter> reporters = new ArrayList<>();
+    private boolean headless;
+    private SolverConfig config = new SolverConfig();
+    private final ArrayList<Double> hypervolumeHistory = new ArrayList<>();
+    private ObjectivesPoint hypervolumeReferencePoint;
+    private final OperatorStatistics initializationStatistics = new OperatorStatistics("initialization");
+    private final OperatorStatistics crossoverStatistics = new OperatorStatistics("crossover");
+    private final OperatorStatistics routeMutationStatistics = new OperatorStatistics("route mutation");
+    private final OperatorStatistics depotsMutationStatistics = new OperatorStatistics("depots mutation");
+    private final OperatorStatistics transportsMutationStatistics = new OperatorStatistics("transports mutation");
 
     public GeneticAlgorithm() {
+        this(Runtime.getRuntime().availableProcessors());
     }
 
-    public void solve(int[][] distanceMatrix, int[][] mautKmMatrix, int[][] vehicleMatrix, int[][] pickupDeliveriesMatrix) throws PythonExecutionException, IOException {
+    /**
+     * @param parallelism number of threads, which generate and mutate childs concurrently. The pool of these threads is
+     *                    shut down by {@link #close()}.
+     */
+    public GeneticAlgorithm(int parallelism) {
+        this(new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * @param executor executor, which generates and mutates childs. The caller keeps the ownership of the executor.
+     */
+    public GeneticAlgorithm(ExecutorService executor) {
+        this(executor, false);
+    }
+
+    private GeneticAlgorithm(ExecutorService executor, boolean ownsExecutor) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Shuts down the thread pool, if it was created by this solver. An executor given by the caller is not shut down.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @param headless true if no plot is shown. The fronts are then only given to the added reporters.
+     */
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
+    /**
+     * Adds a reporter, which receives a snapshot of the fronts of every generation on a background thread.
+     */
+    public void addReporter(GenerationReporter reporter) {
+        reporters.add(reporter);
+    }
+
+    public void setConfig(SolverConfig config) {
+        this.config = config;
+    }
+
+    public SolverConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return hypervolume of the first front of every generation of the last run
+     */
+    public ArrayList<Double> getHypervolumeHistory() {
+        return new ArrayList<>(hypervolumeHistory);
+    }
+
+    /**
+     * @return attempts and infeasible results of every operator in the last run
+     */
+    public List<OperatorStatistics> getOperatorStatistics() {
+        return List.of(initializationStatistics, crossoverStatistics, routeMutationStatistics, depotsMutationStatistics, transportsMutationStatistics);
+    }
+
+    /**
+     * @return reference point of the hypervolumes of the last run, configured or derived from the initial population
+     */
+    public ObjectivesPoint getHypervolumeReferencePoint() {
+        return hypervolumeReferencePoint;
+    }
+
+    /**
+     * @return the final Pareto set
+     */
+    public ArrayList<Solution> solve(int[][] distanceMatrix, int[][] mautKmMatrix, int[][] vehicleMatrix, int[][] pickupDeliveriesMatrix) throws PythonExecutionException, IOException {
         Vehicle[] vehiclesArray = helperService.createVehiclesArray(vehicleMatrix);
         Transport[] transportsArray= helperService.createTransportsArray(pickupDeliveriesMatrix);
         geneticService.setParameters(distanceMatrix,mautKmMatrix,vehiclesArray,transportsArray);
-        geneticAlgorithm(30,10,0.7,0.3);
+        return geneticAlgorithm(config);
+    }
+
+    /**
+     * Solves an instance, whose matrices can be memory-mapped, see {@link Service.InstanceFileService#openInstance}.
+     *
+     * @return the final Pareto set
+     */
+    public ArrayList<Solution> solve(ProblemInstance instance) throws PythonExecutionException, IOException {
+        Vehicle[] vehiclesArray = helperService.createVehiclesArray(instance.getVehiclesMatrix());
+        Transport[] transportsArray= helperService.createTransportsArray(instance.getPickupDeliveriesMatrix());
+        geneticService.setParameters(instance.getDistanceMatrix(),instance.getMautKmMatrix(),vehiclesArray,transportsArray);
+        return geneticAlgorithm(config);
+    }
+
+    /**
+     * Solves an instance, whose vehicles and transports are already created, for example by {@link Service.InstanceStreamReader}.
+     *
+     * @return the final Pareto set
+     */
+    public ArrayList<Solution> solve(IntMatrix distanceMatrix, IntMatrix mautKmMatrix, Vehicle[] vehiclesArray, Transport[] transportsArray) throws PythonExecutionException, IOException {
+        geneticService.setParameters(distanceMatrix,mautKmMatrix,vehiclesArray,transportsArray);
+        return geneticAlgorithm(config);
+    }
+
+    public ArrayList<Solution> geneticAlgorithm (int initPopSize, int generation, double initialCrossoverRate, double initialMutationRate) throws PythonExecutionException, IOException {
+        return geneticAlgorithm(new SolverConfig(initPopSize, generation, initialCrossoverRate, initialMutationRate));
     }
 
-    public void geneticAlgorithm (int initPopSize, int generation, double initialCrossoverRate, double initialMutationRate) throws PythonExecutionException, IOException {
+    /**
+     * Runs the genetic algorithm until the generation cap, the time limit, the evaluation budget or the stagnation limit
+     * of the configuration is reached. The limits are checked after the survival selection of every generation, in the
+     * island model after every migration.
+     *
+     * @param config parameters of the run
+     * @return the first front of the last generation
+     */
+    public ArrayList<Solution> geneticAlgorithm(SolverConfig config) throws PythonExecutionException, IOException {
+        config.validate();
+        RunProgress progress = new RunProgress(config);
+        hypervolumeHistory.clear();
+        hypervolumeReferencePoint = config.getHypervolumeReferencePoint();
+        geneticService.setValidationLevel(config.getValidationLevel());
+        geneticService.resetRouteEvaluationCache(config.getRouteEvaluationCacheSize());
+        for(OperatorStatistics statistics : getOperatorStatistics()) {
+            statistics.reset();
+        }
+        ArrayList<GenerationReporter> generationReporters = new ArrayList<>(reporters);
+        if(!headless) {
+            generationReporters.add(new PlotReporter());
+        }
+        ExecutorService reportingExecutor = generationReporters.isEmpty() ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "generation-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayList<Solution> paretoSet;
+        if(config.getMigrationCoordinatorAddress() != null) {
+            try (MigrationClient migrationClient = new MigrationClient(config.getMigrationCoordinatorAddress(), geneticService)) {
+                System.out.println("CONNECTED AS ISLAND "+migrationClient.getIslandIndex());
+                paretoSet = singlePopulation(config, progress, generationReporters, reportingExecutor, migrationClient);
+            }
+        }
+        else if(config.isSteadyState()) {
+            paretoSet = steadyState(config, progress, generationReporters, reportingExecutor);
+        }
+        else if(config.getIslandCount() > 1) {
+            paretoSet = islandModel(config, progress, generationReporters, reportingExecutor);
+        }
+        else {
+            paretoSet = singlePopulation(config, progress, generationReporters, reportingExecutor, null);
+        }
+        if(reportingExecutor != null) {
+            reportingExecutor.execute(() -> closeReporters(generationReporters));
+            reportingExecutor.shutdown();
+            try {
+                reportingExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for(OperatorStatistics statistics : getOperatorStatistics()) {
+            System.out.println(statistics);
+        }
+        System.out.println(geneticService.getRouteEvaluationCache());
+        return paretoSet;
+    }
+
+    /**
+     * Evolves a single population. With a migration client the population is one island of a multi-process run: it
+     * exchanges emigrants every migrationInterval generations and sends its first front at the end.
+     */
+    private ArrayList<Solution> singlePopulation(SolverConfig config, RunProgress progress, ArrayList<GenerationReporter> generationReporters,
+                                                 ExecutorService reportingExecutor, MigrationClient migrationClient) throws IOException {
+        int initPopSize = config.getPopulationSize();
         ArrayList<Chromosome> population = createInitPopulation(initPopSize);
+        progress.addEvaluations(population.size());
 
         int generationCount = 0;
-        ArrayList<Chromosome> bestIndividuals = new ArrayList<>();
-        ArrayList<Double> xm = new ArrayList<>();
-        ArrayList<Double> ym = new ArrayList<>();
-        while (generationCount <= generation) {
-            double crossoverRate = initialCrossoverRate;
-            double mutationRate = initialMutationRate;
-            ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts = doSurvivalSelectionNSGAII(population,initPopSize, generationCount,xm,ym);
+        ArrayList<Solution> paretoSet = new ArrayList<>();
+        boolean finished = false;
+        while (!finished) {
+            SurvivalSelectionResult survivalSelection = doSurvivalSelectionNSGAII(population,initPopSize);
+            ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts = survivalSelection.getFronts();
+            String stopReason = recordGeneration(fronts, generationCount, progress, generationReporters, reportingExecutor);
+            finished = stopReason != null;
             //System.out.println("pop after select"+population.size());
-            if(generationCount==generation) {
-                caculateMedianAndPlotSolutionsFromFronts(fronts,"final non dominated solutions",false,xm,ym,true);
-                ArrayList<ChromosomeKeyObjectiveValue> firstFront = fronts.get(0);
-                System.out.println(population.size());
-                System.out.println("Number Of final solutions: "+firstFront.size());
-                firstFront.forEach(e-> {
-                    bestIndividuals.add(population.get(e.getChromosomeKey()));
+            if(finished) {
+                System.out.println("STOPPED AFTER GENERATION "+generationCount+" : "+stopReason+", "+progress.getEvaluations()+" evaluations");
+                System.out.println("Number Of final solutions: "+fronts.get(0).size());
+                ArrayList<Chromosome> firstFront = new ArrayList<>();
+                fronts.get(0).forEach(e-> {
+                    firstFront.add(population.get(e.getChromosomeKey()));
+                    paretoSet.add(createSolution(population.get(e.getChromosomeKey())));
                 });
+                if(migrationClient != null) {
+                    migrationClient.sendFinal(firstFront);
+                }
             }
             else{
-                System.out.println("GENERATION NUMBER "+generationCount+" GENERATED !");
-                System.out.println("* mean of current population : "+ "("+xm.get(xm.size()-1)+";"+ym.get(ym.size()-1)+")");
+                ArrayList<Chromosome> emigrants = null;
+                if(migrationClient != null && generationCount > 0 && generationCount % config.getMigrationInterval() == 0) {
+                    emigrants = emigrantsOf(population, fronts.get(0), config.getMigrationSize());
+                }
                 System.out.println("GENERATING CHILDS !");
-                ArrayList<Chromosome> selectedParents = doCrossOverSelectionNSGAII(population,fronts,initPopSize/2);
-                ArrayList<Chromosome> poolList = new ArrayList<>();
-
-                doCrossOver(poolList, selectedParents, initPopSize, crossoverRate);
-
-                doMutation(poolList, mutationRate);
+                progress.addEvaluations(breed(population, survivalSelection, initPopSize, config));
                 System.out.println("CHILDS GENERATED !");
-              //  System.out.println("pool"+poolList.size());
-                population.addAll(poolList);
+                if(emigrants != null) {
+                    ArrayList<Chromosome> immigrants = migrationClient.exchange(emigrants);
+                    System.out.println(immigrants.size()+" IMMIGRANTS RECEIVED !");
+                    // the immigrants compete with the childs in the next survival selection
+                    population.addAll(immigrants);
+                }
               //  System.out.println("pop+pol"+population.size());
                 System.out.println();
                 System.out.println();
             }
             generationCount ++;
         }
-        System.out.println("BEST INDIVIDUALS :");
-        System.out.println(bestIndividuals.toString());
+        return paretoSet;
+    }
+
+    /**
+     * Runs the steady-state engine: a fixed number of childs is always in work, each child is created by its own task.
+     * Every finished child is inserted into the population at once, then the worst individual is removed, so no
+     * core waits for the slowest child of a generation. The parents of a child are selected when its task is submitted.
+     */
+    private ArrayList<Solution> steadyState(SolverConfig config, RunProgress progress, ArrayList<GenerationReporter> generationReporters, ExecutorService reportingExecutor) {
+        int initPopSize = config.getPopulationSize();
+        SteadyStatePopulation population = new SteadyStatePopulation();
+        ArrayList<Chromosome> initPopulation = createInitPopulation(initPopSize);
+        for(Chromosome chromosome : initPopulation) {
+            population.insert(chromosome);
+        }
+        progress.addEvaluations(initPopulation.size());
+
+        ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+        ExecutorService taskExecutor = virtualThreadExecutor != null ? virtualThreadExecutor : executor;
+        if(virtualThreadExecutor != null) {
+            System.out.println("steady-state childs are created on virtual threads");
+        }
+        else {
+            System.out.println("steady-state childs are created on the solver executor, virtual threads need Java 21");
+        }
+        int tasksInWork = executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+        CompletionService<Chromosome> completionService = new ExecutorCompletionService<>(taskExecutor);
+        HashSet<Future<Chromosome>> futures = new HashSet<>();
+        Random rand = ThreadLocalRandom.current();
+
+        int generationCount = 0;
+        int insertedChilds = 0;
+        ArrayList<Solution> paretoSet = new ArrayList<>();
+        try {
+            while (true) {
+                if(insertedChilds % initPopSize == 0) {
+                    ArrayList<Chromosome> populationList = new ArrayList<>();
+                    ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts = population.toFronts(populationList);
+                    String stopReason = recordGeneration(fronts, generationCount, progress, generationReporters, reportingExecutor);
+                    if(stopReason != null) {
+                        System.out.println("STOPPED AFTER GENERATION "+generationCount+" : "+stopReason+", "+progress.getEvaluations()+" evaluations");
+                        System.out.println("Number Of final solutions: "+fronts.get(0).size());
+                        fronts.get(0).forEach(e-> {
+                            paretoSet.add(createSolution(populationList.get(e.getChromosomeKey())));
+                        });
+                        return paretoSet;
+                    }
+                    generationCount++;
+                }
+                while(futures.size() < tasksInWork) {
+                    Chromosome parent1 = population.selectParent(rand);
+                    Chromosome parent2 = population.selectParent(rand);
+                    futures.add(completionService.submit(() -> createChild(parent1, parent2, config)));
+                }
+                Future<Chromosome> future = completionService.take();
+                futures.remove(future);
+                population.insert(future.get());
+                population.removeWorst();
+                progress.addEvaluations(1);
+                insertedChilds++;
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        finally {
+            for(Future<Chromosome> future : futures) {
+                future.cancel(true);
+            }
+            if(virtualThreadExecutor != null) {
+                virtualThreadExecutor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Creates one child of the steady-state engine: the recombination of the parents with the crossover rate, otherwise a
+     * copy of the first parent, which is mutated with the mutation rate. The parents are only read.
+     */
+    private Chromosome createChild(Chromosome parent1, Chromosome parent2, SolverConfig config) {
+        Random rand = ThreadLocalRandom.current();
+        Chromosome child;
+        if(parent1 != parent2 && rand.nextDouble() < config.getCrossoverRate()) {
+            child = feasibleChildOrCopy(geneticService.recombinationOf2Chromosomes(parent1, parent2), parent1);
+        }
+        else {
+            child = parent1.copy();
+        }
+        if(rand.nextDouble() < config.getMutationRate()) {
+            Chromosome mutated = mutate(child);
+            if(mutated != null) {
+                child = mutated;
+            }
+        }
+        return child;
+    }
+
+    /**
+     * Creates an executor, which starts a virtual thread per task, if the runtime has virtual threads (Java 21 or later).
+     *
+     * @return the executor, null if there are no virtual threads
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs the island model: every island evolves its own population on its own thread for migrationInterval generations,
+     * then each island sends copies of first front individuals to another island. The immigrants compete in the next
+     * survival selection of their new island. The populations of all islands are merged and sorted again after every
+     * epoch, so the limits, the hypervolume and the reports refer to the merged front.
+     */
+    private ArrayList<Solution> islandModel(SolverConfig config, RunProgress progress, ArrayList<GenerationReporter> generationReporters, ExecutorService reportingExecutor) {
+        int islandCount = config.getIslandCount();
+        int islandPopulationSize = config.getPopulationSize() / islandCount;
+        ArrayList<Chromosome> initPopulation = createInitPopulation(islandPopulationSize * islandCount);
+        progress.addEvaluations(initPopulation.size());
+        // every island gets individuals of every creation strategy
+        ArrayList<Island> islands = new ArrayList<>();
+        for(int i = 0 ; i < islandCount ; i++) {
+            ArrayList<Chromosome> population = new ArrayList<>();
+            for(int j = i ; j < initPopulation.size() ; j = j + islandCount) {
+                population.add(initPopulation.get(j));
+            }
+            islands.add(new Island(population, islandPopulationSize));
+        }
+        ExecutorService islandExecutor = Executors.newFixedThreadPool(islandCount, new ThreadFactory() {
+            private int count;
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "island-" + count++);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        int generationCount = 0;
+        ArrayList<Solution> paretoSet = new ArrayList<>();
+        try {
+            while (true) {
+                ArrayList<Chromosome> mergedPopulation = new ArrayList<>();
+                for(Island island : islands) {
+                    mergedPopulation.addAll(island.getPopulation());
+                }
+                ArrayList<ChromosomeKeyObjectiveValue> chromosomeKeyObjectiveValues = new ArrayList<>();
+                for(int i = 0 ; i < mergedPopulation.size() ; i++) {
+                    chromosomeKeyObjectiveValues.add(new ChromosomeKeyObjectiveValue(i, mergedPopulation.get(i).getObjectivesPoint()));
+                }
+                ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts = helperService.nonDominanceSort(chromosomeKeyObjectiveValues);
+                String stopReason = recordGeneration(fronts, generationCount, progress, generationReporters, reportingExecutor);
+                if(stopReason != null) {
+                    System.out.println("STOPPED AFTER GENERATION "+generationCount+" : "+stopReason+", "+progress.getEvaluations()+" evaluations");
+                    System.out.println("Number Of final solutions: "+fronts.get(0).size());
+                    fronts.get(0).forEach(e-> {
+                        paretoSet.add(createSolution(mergedPopulation.get(e.getChromosomeKey())));
+                    });
+                    return paretoSet;
+                }
+
+                int epochGenerations = Math.max(1, Math.min(config.getMigrationInterval(), config.getMaxGenerations() - generationCount));
+                ArrayList<Callable<Long>> tasks = new ArrayList<>();
+                for(Island island : islands) {
+                    tasks.add(() -> evolveIsland(island, epochGenerations, config));
+                }
+                try {
+                    for(Future<Long> future : islandExecutor.invokeAll(tasks)) {
+                        progress.addEvaluations(future.get());
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+                catch (ExecutionException e) {
+                    throw new RuntimeException(e.getCause());
+                }
+                migrate(islands, config);
+                generationCount = generationCount + epochGenerations;
+            }
+        }
+        finally {
+            islandExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Evolves an island for some generations. The last survival selection is done after the last generation, so the
+     * population of the island only holds survivors.
+     *
+     * @return number of evaluated childs
+     */
+    private long evolveIsland(Island island, int generations, SolverConfig config) {
+        long evaluations = 0;
+        ArrayList<Chromosome> population = island.getPopulation();
+        for(int g = 0 ; g < generations ; g++) {
+            SurvivalSelectionResult survivalSelection = doSurvivalSelectionNSGAII(population, island.getPopulationSize());
+            evaluations = evaluations + breed(population, survivalSelection, island.getPopulationSize(), config);
+        }
+        doSurvivalSelectionNSGAII(population, island.getPopulationSize());
+        return evaluations;
+    }
+
+    /**
+     * Sends copies of up to migrationSize random first front individuals of every island to its target island.
+     * The emigrants of all islands are choosen before any island receives immigrants.
+     */
+    private void migrate(ArrayList<Island> islands, SolverConfig config) {
+        Random rand = ThreadLocalRandom.current();
+        ArrayList<ArrayList<Chromosome>> emigrants = new ArrayList<>();
+        for(Island island : islands) {
+            ArrayList<Chromosome> population = island.getPopulation();
+            ArrayList<ChromosomeKeyObjectiveValue> chromosomeKeyObjectiveValues = new ArrayList<>();
+            for(int i = 0 ; i < population.size() ; i++) {
+                chromosomeKeyObjectiveValues.add(new ChromosomeKeyObjectiveValue(i, population.get(i).getObjectivesPoint()));
+            }
+            ArrayList<ChromosomeKeyObjectiveValue> firstFront = helperService.nonDominanceSort(chromosomeKeyObjectiveValues).get(0);
+            emigrants.add(emigrantsOf(population, firstFront, config.getMigrationSize()));
+        }
+        for(int i = 0 ; i < islands.size() ; i++) {
+            int target;
+            if(config.getMigrationTopology() == MigrationTopology.RANDOM) {
+                target = rand.nextInt(islands.size() - 1);
+                if(target >= i) {target++;}
+            }
+            else {
+                target = (i + 1) % islands.size();
+            }
+            islands.get(target).getPopulation().addAll(emigrants.get(i));
+        }
+    }
+
+    /**
+     * @return copies of up to migrationSize random individuals of the first front
+     */
+    private static ArrayList<Chromosome> emigrantsOf(ArrayList<Chromosome> population, ArrayList<ChromosomeKeyObjectiveValue> firstFront, int migrationSize) {
+        ArrayList<ChromosomeKeyObjectiveValue> candidates = new ArrayList<>(firstFront);
+        Collections.shuffle(candidates, ThreadLocalRandom.current());
+        ArrayList<Chromosome> emigrants = new ArrayList<>();
+        for(int i = 0 ; i < Math.min(migrationSize, candidates.size()) ; i++) {
+            emigrants.add(population.get(candidates.get(i).getChromosomeKey()).copy());
+        }
+        return emigrants;
+    }
+
+    /**
+     * Generates the childs of a generation and adds them to the population.
+     *
+     * @return number of childs
+     */
+    private int breed(ArrayList<Chromosome> population, SurvivalSelectionResult survivalSelection, int popSize, SolverConfig config) {
+        ArrayList<Chromosome> selectedParents = doCrossOverSelectionNSGAII(population,survivalSelection,popSize/2);
+        ArrayList<Chromosome> poolList = new ArrayList<>();
+
+        doCrossOver(poolList, selectedParents, popSize, config.getCrossoverRate());
+
+        doMutation(poolList, config.getMutationRate());
+      //  System.out.println("pool"+poolList.size());
+        population.addAll(poolList);
+        return poolList.size();
+    }
+
+    /**
+     * Records the hypervolume of a generation, reports its fronts and checks the limits of the run.
+     *
+     * @return the reason to stop, null if the run goes on
+     */
+    private String recordGeneration(ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts, int generationCount, RunProgress progress,
+                                    ArrayList<GenerationReporter> generationReporters, ExecutorService reportingExecutor) {
+        if(hypervolumeReferencePoint == null) {
+            hypervolumeReferencePoint = helperService.hypervolumeReferencePoint(fronts);
+        }
+        double hypervolume = helperService.hypervolume(fronts.get(0), hypervolumeReferencePoint);
+        hypervolumeHistory.add(hypervolume);
+        String stopReason = progress.update(generationCount, fronts.get(0), hypervolume);
+
+        System.out.println("GENERATION NUMBER "+generationCount+" GENERATED !");
+        // the median is only needed for the plot data, so it is skipped in headless mode without reporters
+        if(reportingExecutor != null) {
+            ObjectivesPoint median = caculateMedianOfFronts(fronts);
+            GenerationSnapshot snapshot = createSnapshot(fronts, generationCount, stopReason != null, median, hypervolume, progress.getElapsedMillis());
+            reportingExecutor.execute(() -> report(generationReporters, snapshot));
+            System.out.println("* mean of current population : "+ "("+median.getX()+";"+median.getY()+")");
+        }
+        System.out.println("* hypervolume of first front : "+hypervolume);
+        return stopReason;
+    }
+
+    private Solution createSolution(Chromosome chromosome) {
+        ArrayList<VehicleRoute> routes = new ArrayList<>();
+        Gene[] genes = chromosome.getGenesList();
+        for(int i = 0 ; i < genes.length ; i++) {
+            Route route = genes[i].getRoute();
+            int[] stopTransportIndices = new int[route.size() - 2];
+            boolean[] stopIsPickUp = new boolean[route.size() - 2];
+            for(int j = 1 ; j < route.size() - 1 ; j++) {
+                stopTransportIndices[j - 1] = route.getTransportIndex(j);
+                stopIsPickUp[j - 1] = route.isPickUp(j);
+            }
+            routes.add(new VehicleRoute(genes[i].getVehicleIndex(), genes[i].getDepot(), stopTransportIndices, stopIsPickUp, genes[i].getTotalTime(), genes[i].getTotalMautKm()));
+        }
+        return new Solution(routes, chromosome.getTotalMautKM(), chromosome.getMaxTime());
     }
 
     private void doCrossOver( ArrayList<Chromosome> poolList, ArrayList<Chromosome> selectedParents, int initPopSize, double crossoverRate) {
@@ -78,35 +589,35 @@ public class GeneticAlgorithm {
         ArrayList<Chromosome> childsList1 = crossOverStrategy1(selectedParents, numOfChildsFromCrossOver);
         int numOfChildsCopyFromParents = initPopSize - numOfChildsFromCrossOver;
         ArrayList<Integer> randomIndices = helperService.generateNRandomNumberBetween(selectedParents.size()-1,0,numOfChildsCopyFromParents);
+       // copies, because a parent can be selected more than once and childs are mutated concurrently
        for(int i = 0 ; i < randomIndices.size() ; i++) {
-           poolList.add(selectedParents.get(randomIndices.get(i)));
+           poolList.add(selectedParents.get(randomIndices.get(i)).copy());
        }
         poolList.addAll(childsList1);
     }
 
-    public ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> doSurvivalSelectionNSGAII(ArrayList<Chromosome> population, int popSize, int generation, ArrayList<Double> xm, ArrayList<Double> ym) throws PythonExecutionException, IOException {
+    /**
+     * Selects the next population by rank and crowding distance and removes the other individuals from the population.
+     *
+     * @return fronts of the next population with the rank and crowding distance of every individual
+     */
+    public SurvivalSelectionResult doSurvivalSelectionNSGAII(ArrayList<Chromosome> population, int popSize) {
         ArrayList<ChromosomeKeyObjectiveValue> chromosomeKeyObjectiveValues = new ArrayList<>();
         int selectNumber = popSize;
-        ArrayList<Integer> deletedIndices = new ArrayList<>();
-        ArrayList<Chromosome> remove = new ArrayList<>();
         for(int i = 0 ; i < population.size() ; i++) {
-            chromosomeKeyObjectiveValues.add(new ChromosomeKeyObjectiveValue(i,new ObjectivesPoint(population.get(i).getTotalMautKM(),population.get(i).getMaxTime())));
+            chromosomeKeyObjectiveValues.add(new ChromosomeKeyObjectiveValue(i,population.get(i).getObjectivesPoint()));
         }
         ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts = helperService.nonDominanceSort(chromosomeKeyObjectiveValues);
         //plotFronts(fronts,"before survival selection");
+        // crowding distances are calculated once per selected front, indexed by the position before compaction
+        double[] crowdingDistancesBefore = new double[population.size()];
         for(int i = 0 ; i < fronts.size() ; i++) {
             ArrayList<ChromosomeKeyObjectiveValue> front = fronts.get(i);
             if(selectNumber>0) {
+                helperService.assignCrowdingDistance(front, crowdingDistancesBefore);
                 if(selectNumber<front.size()) {
-                    HashMap<Integer,Double> crowdingDistancesMap = helperService.assignCrowdingDistance(front);
-                    front.sort(Comparator.comparingDouble(a->crowdingDistancesMap.get(a.getChromosomeKey())));
-                    Collections.reverse(front);
-                    List<ChromosomeKeyObjectiveValue> toRemove = front.subList(selectNumber,front.size());
-                    for(int j = 0 ; j < toRemove.size() ; j++) {
-                        remove.add(population.get(toRemove.get(j).getChromosomeKey()));
-                        deletedIndices.add(toRemove.get(j).getChromosomeKey());
-                    }
-                    toRemove.clear();
+                    front.sort(Comparator.comparingDouble((ChromosomeKeyObjectiveValue a) -> crowdingDistancesBefore[a.getChromosomeKey()]).reversed());
+                    front.subList(selectNumber,front.size()).clear();
                     selectNumber = 0;
                 }
                 else {
@@ -114,193 +625,206 @@ public class GeneticAlgorithm {
                 }
             }
             else {
-                for(int j = 0 ; j < front.size() ; j++) {
-                    remove.add(population.get(front.get(j).getChromosomeKey()));
-                    deletedIndices.add(front.get(j).getChromosomeKey());
-                }
-                fronts.remove(i);
-                i--;
+                fronts.subList(i,fronts.size()).clear();
             }
         }
-        //System.out.println("ds"+deletedIndices.size());
-        //System.out.println("rs"+remove.size());
-        // reseting keys
-        resetingKeysInFronts(population, deletedIndices, fronts);
-
-        caculateMedianAndPlotSolutionsFromFronts(fronts,"solutions of generation number "+generation, false, xm,ym, false);
+        // compaction keeps the order within the fronts, so the distances are read in front order before and written after
+        double[] crowdingDistancesInFrontOrder = new double[popSize];
+        int count = 0;
+        for(ArrayList<ChromosomeKeyObjectiveValue> front : fronts) {
+            for(ChromosomeKeyObjectiveValue individual : front) {
+                crowdingDistancesInFrontOrder[count] = crowdingDistancesBefore[individual.getChromosomeKey()];
+                count++;
+            }
+        }
+        compactPopulation(population, fronts);
 
-        return fronts;
+        int[] ranks = new int[population.size()];
+        double[] crowdingDistances = new double[population.size()];
+        count = 0;
+        for(int i = 0 ; i < fronts.size() ; i++) {
+            for(int j = 0 ; j < fronts.get(i).size() ; j++) {
+                int key = fronts.get(i).get(j).getChromosomeKey();
+                ranks[key] = i;
+                crowdingDistances[key] = crowdingDistancesInFrontOrder[count];
+                count++;
+            }
+        }
+        return new SurvivalSelectionResult(fronts, ranks, crowdingDistances);
     }
 
-    private static void resetingKeysInFronts(ArrayList<Chromosome> population, ArrayList<Integer> deletedIndices, ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts) {
-        Collections.sort(deletedIndices);
-
+    /**
+     * Removes every individual, which is not in a front, from the population in one pass. The survivors keep their order
+     * and the keys in the fronts are set to their new positions.
+     *
+     * @param population the population
+     * @param fronts     fronts of the survivors
+     */
+    private static void compactPopulation(ArrayList<Chromosome> population, ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts) {
+        int[] newIndexOf = new int[population.size()];
+        Arrays.fill(newIndexOf, -1);
         for(int i = 0; i < fronts.size() ; i++) {
             for(int j = 0; j < fronts.get(i).size() ; j++) {
-                int key = fronts.get(i).get(j).getChromosomeKey();
-                if(!deletedIndices.contains(key)) {
-                    boolean reset = false;
-                    for(int c = 0; c < deletedIndices.size() ; c++) {
-                        if(key < deletedIndices.get(c)) {
-                            fronts.get(i).get(j).setChromosomeKey(key - c );
-                            reset = true;
-                            break;
-                        }
-                    }
-                    if(!reset) {
-                        fronts.get(i).get(j).setChromosomeKey(key - deletedIndices.size() );
-                    }
-                }
+                newIndexOf[fronts.get(i).get(j).getChromosomeKey()] = 0;
+            }
+        }
+        int survivorsCount = 0;
+        for(int i = 0 ; i < population.size() ; i++) {
+            if(newIndexOf[i] != -1) {
+                newIndexOf[i] = survivorsCount;
+                population.set(survivorsCount, population.get(i));
+                survivorsCount++;
             }
         }
-        //System.out.println("pop"+population.size());
-        //System.out.println("r"+remove.size());
-        for(int i = 0 ; i < deletedIndices.size() ; i++) {
-            population.remove(deletedIndices.get(i)-i);
+        population.subList(survivorsCount, population.size()).clear();
+        for(int i = 0; i < fronts.size() ; i++) {
+            for(int j = 0; j < fronts.get(i).size() ; j++) {
+                ChromosomeKeyObjectiveValue individual = fronts.get(i).get(j);
+                individual.setChromosomeKey(newIndexOf[individual.getChromosomeKey()]);
+            }
         }
-        //System.out.println("popr"+population.size());
     }
 
-    private void caculateMedianAndPlotSolutionsFromFronts(ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts, String title, boolean onlyFirstFront,  ArrayList<Double> xm, ArrayList<Double> ym, boolean graphic) throws PythonExecutionException, IOException {
-
-        ArrayList<Double> x = new ArrayList<>();
-        ArrayList<Double> y = new ArrayList<>();
-        ArrayList<Double> x1 = new ArrayList<>();
-        ArrayList<Double> y1 = new ArrayList<>();
-        ArrayList<Double> xmg = new ArrayList<>();
-        ArrayList<Double> ymg = new ArrayList<>();
+    private ObjectivesPoint caculateMedianOfFronts(ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts) {
         ArrayList<ObjectivesPoint> allPoints = new ArrayList<>();
-        for(int i = 1 ; i < fronts.size() ; i++) {
-            fronts.get(i).forEach(e->
-                    {y.add(e.getObjectivesPoint().getX()); x.add(e.getObjectivesPoint().getY()); allPoints.add(e.getObjectivesPoint());}
-            );
-        }
-        fronts.get(0).forEach(e->
-                {y1.add(e.getObjectivesPoint().getX()); x1.add(e.getObjectivesPoint().getY()); allPoints.add(e.getObjectivesPoint());}
-        );
-        ObjectivesPoint median = helperService.geometricMedian(allPoints);
-        if(!(Double.isNaN(median.getX())) && !(Double.isNaN(median.getY()))) {
-            xmg.add(median.getX());
-            ymg.add(median.getY());
-        }
-        xm.addAll(xmg);
-        ym.addAll(ymg);
-        if(graphic) {
-            Plot plot = Plot.create();
-            plot.xlabel("max time");
-            plot.ylabel("total toll kilometers");
-            if(!onlyFirstFront) {plot.plot().add(x, y, "o").label("dominated solutions").color("blue");}
-            plot.plot().add(x1,y1,"o").label("dominating solutions").color("red");
-            //plot.plot().add(ym,xm).linestyle("-").label("medians line"); // plot meadian as y then x
-            //plot.plot().add(ym,xm,"x").label("medians of previous generations");
-            plot.plot().add(ymg,xmg,"X").label("median of this generation").color("black");
-            plot.legend().loc("best");
-            plot.title(title);
-            plot.show();
-        }
-    }
-
-    public ArrayList<Chromosome> doCrossOverSelectionNSGAII(ArrayList<Chromosome> population, ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts, int crossOverPoolSize) {
+        for(int i = 0 ; i < fronts.size() ; i++) {
+            for(int j = 0 ; j < fronts.get(i).size() ; j++) {
+                allPoints.add(fronts.get(i).get(j).getObjectivesPoint());
+            }
+        }
+        return helperService.geometricMedian(allPoints);
+    }
+
+    /**
+     * Copies the objective values of the fronts, so the snapshot can be reported while the population changes.
+     */
+    private GenerationSnapshot createSnapshot(ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts, int generation, boolean finalGeneration, ObjectivesPoint median, double hypervolume, long elapsedMillis) {
+        double[][] mautKmOfFronts = new double[fronts.size()][];
+        double[][] timeOfFronts = new double[fronts.size()][];
+        for(int i = 0 ; i < fronts.size() ; i++) {
+            ArrayList<ChromosomeKeyObjectiveValue> front = fronts.get(i);
+            mautKmOfFronts[i] = new double[front.size()];
+            timeOfFronts[i] = new double[front.size()];
+            for(int j = 0 ; j < front.size() ; j++) {
+                mautKmOfFronts[i][j] = front.get(j).getObjectivesPoint().getX();
+                timeOfFronts[i][j] = front.get(j).getObjectivesPoint().getY();
+            }
+        }
+        return new GenerationSnapshot(generation, finalGeneration, mautKmOfFronts, timeOfFronts, median, hypervolume, elapsedMillis);
+    }
+
+    private static void report(ArrayList<GenerationReporter> generationReporters, GenerationSnapshot snapshot) {
+        for(GenerationReporter reporter : generationReporters) {
+            try {
+                reporter.report(snapshot);
+            }
+            catch (Exception e) {
+                System.err.println("reporting generation " + snapshot.getGeneration() + " failed: " + e);
+            }
+        }
+    }
+
+    private static void closeReporters(ArrayList<GenerationReporter> generationReporters) {
+        for(GenerationReporter reporter : generationReporters) {
+            try {
+                reporter.close();
+            }
+            catch (Exception e) {
+                System.err.println("closing reporter failed: " + e);
+            }
+        }
+    }
+
+    /**
+     * Selects the parents by binary tournaments of the crowded comparison. Each tournament only reads the rank and crowding
+     * distance tables, so it needs constant time.
+     *
+     * @param population        the population after survival selection
+     * @param survivalSelection rank and crowding distance of the individuals of the population
+     * @param crossOverPoolSize number of parents
+     * @return the parents
+     */
+    public ArrayList<Chromosome> doCrossOverSelectionNSGAII(ArrayList<Chromosome> population, SurvivalSelectionResult survivalSelection, int crossOverPoolSize) {
 
         ArrayList<Chromosome> parentsPool = new ArrayList<>();
+        Random rand = ThreadLocalRandom.current();
         for(int c = 0 ; c < crossOverPoolSize ; c++) {
-            ArrayList<Integer> parentIndices = helperService.generateNRandomNumberBetween(population.size()-1,0,2);
-            int firstFront = 0;
-            int secondFront = 0;
-            for(int i = 0 ; i < fronts.size() ; i++) {
-                for(int j = 0 ; j < fronts.get(i).size() ; j++) {
-                    if(fronts.get(i).get(j).getChromosomeKey() == parentIndices.get(0)) {
-                        firstFront = i;
-                    }
-                    if(fronts.get(i).get(j).getChromosomeKey() == parentIndices.get(1)) {
-                        secondFront = i;
-                    }
-                }
+            int first = rand.nextInt(population.size());
+            int second = rand.nextInt(population.size() - 1);
+            if(second >= first) {second++;}
+            if(survivalSelection.isCrowdedBetterOrEqual(first, second)) {
+                parentsPool.add(population.get(first));
             }
-
-            if(firstFront<secondFront) {parentsPool.add(population.get(parentIndices.get(0)));}
-            else  if(firstFront>secondFront) {parentsPool.add(population.get(parentIndices.get(1)));}
-            else {
-                HashMap<Integer,Double>crowdingDistance = helperService.assignCrowdingDistance(fronts.get(firstFront));
-                double firstValue = crowdingDistance.get(parentIndices.get(0));
-                double secondValue = crowdingDistance.get(parentIndices.get(1));
-                if(firstValue>=secondValue) {
-                    parentsPool.add(population.get(parentIndices.get(0)));
-                }
-                else{
-                    parentsPool.add(population.get(parentIndices.get(1)));
-                }
+            else{
+                parentsPool.add(population.get(second));
             }
         }
         return parentsPool;
     }
 
+    /**
+     * Mutates a part of the pool. Each choosen chromosome is mutated by its own task on the executor, a feasible mutant
+     * replaces the chromosome in the pool.
+     *
+     * @param poolList     the pool, whose chromosomes are pairwise distinct objects
+     * @param mutationRate the rate of mutated chromosomes
+     */
     public void doMutation(ArrayList<Chromosome> poolList, double mutationRate) {
         int countSuccedd = 0;
-        Random rand = new Random();
-        Collections.shuffle(poolList);
+        Collections.shuffle(poolList, ThreadLocalRandom.current());
         int numOfChildsMutated = (int) (poolList.size() * mutationRate);
+        ArrayList<Callable<Chromosome>> tasks = new ArrayList<>();
         for(int i = 0 ; i < numOfChildsMutated ; i++) {
             Chromosome chromosome = poolList.get(i);
-            Chromosome copy = chromosome.clone();
-            boolean success = false;
-            boolean totalSuccess = false;
-            int count = 0;
-            int randomNumber = rand.nextInt(3) + 1;
-            if(randomNumber == 1) {
-                while(!success && count < 50) {
-                    try {
-                        count ++;
-                        boolean opt = rand.nextBoolean();
-                        mutationOfRoute(chromosome,opt);
-                        success = true;
-                    }
-                    catch (Exception e) {
-                        chromosome = copy;
-                    }
-                }
-                totalSuccess = totalSuccess || success;
-            }
-            if(randomNumber == 2) {
-                success = false;
-                count = 0;
-                while(!success && count < 50) {
-                    try {
-                        count++;
-                        mutationOfDepots(chromosome);
-                        success = true;
-                    }
-                    catch (Exception e) {
-                        chromosome = copy;
-                    }
-                }
-                totalSuccess = totalSuccess || success;
-            }
-            if(randomNumber == 3) {
-                success = false;
-                count = 0;
-                while(!success && count < 50) {
-                    try {
-                        count++;
-                        mutationOfTransports(chromosome);
-                        success = true;
-                    }
-                    catch (Exception e) {
-                        chromosome = copy;
-                    }
-                }
-                totalSuccess = totalSuccess || success;
+            tasks.add(() -> mutate(chromosome));
+        }
+        ArrayList<Chromosome> mutants = invokeAll(tasks);
+        for(int i = 0 ; i < mutants.size() ; i++) {
+            if(mutants.get(i) != null) {
+                poolList.set(i, mutants.get(i));
+                countSuccedd++;
             }
-            if(totalSuccess) {countSuccedd++;}
         }
         System.out.println("do mutation succeed on "+countSuccedd+" chromosomes.");
     }
-    private void mutationOfRoute(Chromosome chromosome, boolean toOptimize) {
+
+    /**
+     * Mutates a copy of the chromosome with a random operator. An infeasible mutant is rejected and the operator is
+     * tried again on a new copy, at most 50 times. The chromosome itself is not changed.
+     *
+     * @return the feasible mutant, null if every attempt is infeasible
+     */
+    private Chromosome mutate(Chromosome chromosome) {
+        Random rand = ThreadLocalRandom.current();
+        int randomNumber = rand.nextInt(3) + 1;
+        for(int count = 0 ; count < 50 ; count++) {
+            Chromosome mutant = chromosome.copy();
+            Feasibility feasibility;
+            if(randomNumber == 1) {
+                feasibility = mutationOfRoute(mutant, rand.nextBoolean());
+                routeMutationStatistics.recordAttempt(feasibility.getViolation());
+            }
+            else if(randomNumber == 2) {
+                feasibility = mutationOfDepots(mutant);
+                depotsMutationStatistics.recordAttempt(feasibility.getViolation());
+            }
+            else {
+                feasibility = mutationOfTransports(mutant);
+                transportsMutationStatistics.recordAttempt(feasibility.getViolation());
+            }
+            if(feasibility.isFeasible()) {
+                return mutant;
+            }
+        }
+        return null;
+    }
+
+    private Feasibility mutationOfRoute(Chromosome chromosome, boolean toOptimize) {
         Gene[] genes = chromosome.getGenesList();
         for(int i = 0 ; i < genes.length ; i++) {
-            ArrayList<TransportNode> route = genes[i].getRoute();
+            Route route = genes[i].getRoute();
             int vehicleIndex = genes[i].getVehicleIndex();
-            int option = new Random().nextInt(2);
+            int option = ThreadLocalRandom.current().nextInt(2);
             if(option<1) {
                 geneticService.shuffleThisRoute(vehicleIndex,route,genes[i].getTransportsIndicesList(),toOptimize);
                 geneticService.reassignSubRoute(vehicleIndex,route,genes[i].getTransportsIndicesList(),toOptimize);
@@ -308,43 +832,91 @@ public class GeneticAlgorithm {
                 genes[i].setTotalMautKm(geneticService.caculateTotalMautKmOfThisRoute(vehicleIndex,route));
             }
             else {
-                ArrayList<TransportNode> newRoute = geneticService.createTransportsRouteOfThisGene1(vehicleIndex,genes[i].getTransportsIndicesList());
+                Route newRoute = geneticService.createTransportsRouteOfThisGene1(vehicleIndex,genes[i].getTransportsIndicesList());
                 genes[i].setRoute(newRoute);
                 genes[i].setTotalTime(geneticService.caculateTotalTimeOfThisRoute(vehicleIndex,newRoute));
                 genes[i].setTotalMautKm(geneticService.caculateTotalMautKmOfThisRoute(vehicleIndex,newRoute));
             }
         }
-        geneticService.checkChromosomeIsValid(chromosome);
+        return geneticService.checkChromosomeFeasibility(chromosome);
      }
-    private void mutationOfTransports(Chromosome chromosome) {
+    private Feasibility mutationOfTransports(Chromosome chromosome) {
         geneticService.reassignTransportsBetweenRoutes(chromosome);
-        geneticService.checkChromosomeIsValid(chromosome);
+        return geneticService.checkChromosomeFeasibility(chromosome);
     }
-    private  void mutationOfDepots(Chromosome chromosome) {
+    private Feasibility mutationOfDepots(Chromosome chromosome) {
         geneticService.reassignRoutesToBestDepots(chromosome);
-        geneticService.checkChromosomeIsValid(chromosome);
+        return geneticService.checkChromosomeFeasibility(chromosome);
      }
 
+    /**
+     * Generates childs by recombination of 2 random parents. Each pair of childs is generated by its own task on the executor,
+     * the parents are only read.
+     *
+     * @param parents the parents pool
+     * @param size    the number of childs
+     * @return the childs
+     */
     public ArrayList<Chromosome> crossOverStrategy1(ArrayList<Chromosome> parents, int size) {
-        ArrayList<Chromosome> child = new ArrayList<>();
+        ArrayList<Callable<Chromosome[]>> tasks = new ArrayList<>();
         for(int i = 0 ; i < size ; i= i+2) {
-            Collections.shuffle(parents);
-            Chromosome child1 = geneticService.recombinationOf2Chromosomes(parents.get(0),parents.get(1));
-            Chromosome child2 = geneticService.recombinationOf2Chromosomes(parents.get(1),parents.get(0));
-            geneticService.checkChromosomeIsValid(child1);
-            child.add(child1);
-            geneticService.checkChromosomeIsValid(child2);
-            child.add(child2);
+            tasks.add(() -> {
+                Random rand = ThreadLocalRandom.current();
+                int first = rand.nextInt(parents.size());
+                int second = rand.nextInt(parents.size() - 1);
+                if(second >= first) {second++;}
+                Chromosome child1 = geneticService.recombinationOf2Chromosomes(parents.get(first),parents.get(second));
+                Chromosome child2 = geneticService.recombinationOf2Chromosomes(parents.get(second),parents.get(first));
+                return new Chromosome[]{feasibleChildOrCopy(child1, parents.get(first)), feasibleChildOrCopy(child2, parents.get(second))};
+            });
+        }
+        ArrayList<Chromosome> child = new ArrayList<>();
+        for(Chromosome[] childs : invokeAll(tasks)) {
+            child.add(childs[0]);
+            child.add(childs[1]);
         }
         System.out.println("DONE CROSSOVER !");
         return child;
     }
 
+    /**
+     * @return the child if it is feasible, otherwise a copy of the parent
+     */
+    private Chromosome feasibleChildOrCopy(Chromosome child, Chromosome parent) {
+        Feasibility feasibility = geneticService.checkChromosomeFeasibility(child);
+        crossoverStatistics.recordAttempt(feasibility.getViolation());
+        return feasibility.isFeasible() ? child : parent.copy();
+    }
+
+    /**
+     * Runs the tasks on the executor and returns their results in the order of the tasks. A runtime exception of a task is rethrown.
+     */
+    private <T> ArrayList<T> invokeAll(ArrayList<Callable<T>> tasks) {
+        ArrayList<T> results = new ArrayList<>();
+        try {
+            for(Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        return results;
+    }
+
     private ArrayList<Chromosome> createInitPopulation(int size) {
 
         long start = System.currentTimeMillis();
         Chromosome[] population = new Chromosome[size];
         int generatedInvidualCount = 0; // count generated individual
+        int infeasibleInARow = 0;
         int firstStrategy = size*20/100;
         int secondStrategy = size*20/100 + size*30/100;
         while (generatedInvidualCount != size) {
@@ -358,7 +930,16 @@ public class GeneticAlgorithm {
             else{
                 individual = geneticService.createChromosomeBestDepotsRandomRoute();
             }
-            geneticService.checkChromosomeIsValid(individual);
+            Feasibility feasibility = individual == null ? Feasibility.violated(ConstraintViolation.ROUTE_INVALID, -1) : geneticService.checkChromosomeFeasibility(individual);
+            initializationStatistics.recordAttempt(feasibility.getViolation());
+            if(!feasibility.isFeasible()) {
+                infeasibleInARow++;
+                if(infeasibleInARow == MAX_INFEASIBLE_INITIALIZATIONS) {
+                    throw new RuntimeException("no feasible individual in " + infeasibleInARow + " attempts, last violation: " + feasibility);
+                }
+                continue;
+            }
+            infeasibleInARow = 0;
             population[generatedInvidualCount] = individual;
             System.out.println("Invidual number "+(generatedInvidualCount+1)+" generated!");
             generatedInvidualCount++;
@@ -398,6 +979,8 @@ public class GeneticAlgorithm {
         System.out.println("           WORST MAUT KM TOTAL :"+population[indexMin].getTotalMautKM());
         System.out.println("           WORST TIME TOTAL :"+population[indexMin].getMaxTime());
         System.out.println("");
+        System.out.println("           OBJECTIVES RECOMPUTATIONS :"+Chromosome.getTotalObjectivesRecomputations());
+        System.out.println("");
         System.out.println("****************************************************************************************");
         System.out.println("");
         System.out.println("");
@@ -4,26 +4,57 @@ import Model.*;
 import Service.HelperService;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 
 class GeneticService {
 
-    private int[][] distanceMatrix;
-    private int[][] mautKmMatrix;
-    private Vehicle[] vehiclesArray;
-    private Transport[] transportsArray;
+    private ProblemContext problem;
     private final HelperService helperService;
+    private final ThreadLocal<int[]> visitMarksOfThread = ThreadLocal.withInitial(() -> new int[1]);
+    private ValidationLevel validationLevel = ValidationLevel.FULL;
+    private RouteEvaluationCache routeEvaluationCache = new RouteEvaluationCache(SolverConfig.DEFAULT_ROUTE_EVALUATION_CACHE_SIZE);
 
 
     public GeneticService() {
         this.helperService = new HelperService();
     }
 
+    /**
+     * Sets the problem data. It must be called before any chromosome is generated, the data is then only read, also by parallel operators.
+     */
     public void setParameters(int[][] distanceMatrix, int[][] mautKmMatrix, Vehicle[] vehiclesArray, Transport[] transportsArray) {
-        this.distanceMatrix = distanceMatrix;
-        this.mautKmMatrix = mautKmMatrix;
-        this.vehiclesArray = vehiclesArray;
-        this.transportsArray = transportsArray;
+        setParameters(IntMatrix.of(distanceMatrix), IntMatrix.of(mautKmMatrix), vehiclesArray, transportsArray);
+    }
+
+    public void setParameters(IntMatrix distanceMatrix, IntMatrix mautKmMatrix, Vehicle[] vehiclesArray, Transport[] transportsArray) {
+        this.problem = new ProblemContext(distanceMatrix, mautKmMatrix, vehiclesArray, transportsArray);
+        this.routeEvaluationCache = new RouteEvaluationCache(routeEvaluationCache.getCapacity());
+    }
+
+    public ProblemContext getProblem() {
+        return problem;
+    }
+
+    public ValidationLevel getValidationLevel() {
+        return validationLevel;
+    }
+
+    public void setValidationLevel(ValidationLevel validationLevel) {
+        this.validationLevel = validationLevel;
+    }
+
+    public RouteEvaluationCache getRouteEvaluationCache() {
+        return routeEvaluationCache;
+    }
+
+    /**
+     * Replaces the route evaluation cache by an empty one.
+     *
+     * @param capacity maximal number of cached evaluations, 0 to disable the cache
+     */
+    public void resetRouteEvaluationCache(int capacity) {
+        this.routeEvaluationCache = new RouteEvaluationCache(capacity);
     }
 
 
@@ -33,21 +64,19 @@ class GeneticService {
      * Strategy 2 builds route continously by greedy choosing best next suitable transport node.
      *
      * @param strategy choosen strategy.
-     * @return an Individual.
+     * @return an Individual, null if a route is infeasible.
      */
     public Chromosome createChromosomeBestRouteRandomDepot(int strategy) {
-        // take all transports and vehicles
+        Random random = ThreadLocalRandom.current();
+        // take all vehicles, transports are marked when assigned
         ArrayList<Integer> vehiclesIndicesList = new ArrayList<>();
-        for (int i = 0; i < vehiclesArray.length; i++) {
+        for (int i = 0; i < problem.getVehiclesCount(); i++) {
             vehiclesIndicesList.add(i);
         }
-        ArrayList<Integer> transportsIndicesList = new ArrayList<>();
-        for (int i = 0; i < transportsArray.length; i++) {
-            transportsIndicesList.add(i);
-        }
+        boolean[] assigned = new boolean[problem.getTransportsCount()];
         // take some of vehicles
-        Collections.shuffle(vehiclesIndicesList);
-        int numVehiclesToTake = (int) (Math.random() * vehiclesIndicesList.size() + 1);
+        Collections.shuffle(vehiclesIndicesList, random);
+        int numVehiclesToTake = (int) (random.nextDouble() * vehiclesIndicesList.size() + 1);
         ArrayList<Integer> takenVehiclesIndicesList = new ArrayList<>();
         for (int i = 0; i < numVehiclesToTake; i++) {
             takenVehiclesIndicesList.add(vehiclesIndicesList.remove(0));
@@ -58,49 +87,55 @@ class GeneticService {
         for (int v = 0; v < takenVehiclesIndicesList.size(); v++) {
 
             int takeVehicleCode = takenVehiclesIndicesList.get(v);
-            Vehicle vehicle = vehiclesArray[takeVehicleCode];
+            Vehicle vehicle = problem.getVehicle(takeVehicleCode);
 
-            ArrayList<Integer> assignedTransportsIndices = new ArrayList<>();
-            transportsIndicesList.forEach(index -> {
-                if (transportsArray[index].getAmount() <= vehicle.getCap()) {
-                    assignedTransportsIndices.add(index); // assign-able
+            TransportSet assignedTransportsIndices = new TransportSet();
+            for (int t = 0; t < problem.getTransportsCount(); t++) {
+                if (!assigned[t] && problem.getTransport(t).getAmount() <= vehicle.getCap()) {
+                    assignedTransportsIndices.add(t); // assign-able
                 }
-            });
+            }
 
-            Collections.shuffle(assignedTransportsIndices);
-            int numTransportsToAssign = (int) (Math.random() * assignedTransportsIndices.size() + 1);
+            assignedTransportsIndices.shuffle(random);
+            int numTransportsToAssign = (int) (random.nextDouble() * assignedTransportsIndices.size() + 1);
+            assignedTransportsIndices.truncate(numberOfTransportsToKeep(assignedTransportsIndices.size(), numTransportsToAssign));
 
-            for (int i = 0; i < assignedTransportsIndices.size() - numTransportsToAssign; i++) {
-                assignedTransportsIndices.remove(0);
+            for (int i = 0; i < assignedTransportsIndices.size(); i++) {
+                assigned[assignedTransportsIndices.get(i)] = true;
             }
 
-            assignedTransportsIndices.forEach(integer -> {
-                transportsIndicesList.removeIf(integer1 -> integer1 == integer);
-            });
-
             if (assignedTransportsIndices.size() != 0) {
                 Gene gene = createGene(vehicle.getDepot(), takeVehicleCode, vehicle.getFixCost(), assignedTransportsIndices, strategy);
+                if (gene == null) {
+                    return null;
+                }
                 genesList.add(gene);
             }
         }
 
         // assign rest transports to one of the rest vehicle , or to one of the choosen vehicles
-        // at this point vehicleIndicesList and transportsCodeList have only unassigned indices of vehicles and transports
+        // at this point vehicleIndicesList and transportsIndicesList have only unassigned indices of vehicles and transports
+        TransportSet transportsIndicesList = new TransportSet();
+        for (int t = 0; t < problem.getTransportsCount(); t++) {
+            if (!assigned[t]) {
+                transportsIndicesList.add(t);
+            }
+        }
 
         //max load is the maximum load of the unassigned transports
         int maxTransportLoad = 0;
         for (int i = 0; i < transportsIndicesList.size(); i++) {
-            maxTransportLoad = Math.max(maxTransportLoad, transportsArray[transportsIndicesList.get(i)].getAmount());
+            maxTransportLoad = Math.max(maxTransportLoad, problem.getTransport(transportsIndicesList.get(i)).getAmount());
         }
 
-        Collections.shuffle(vehiclesIndicesList);
+        Collections.shuffle(vehiclesIndicesList, random);
         Vehicle bonusVehicle = null;
         int bonusVehicleIndex = -1;
         // find bonus vehicle with load >= max load
         for (int i = 0; i < vehiclesIndicesList.size(); i++) {
-            if (vehiclesArray[vehiclesIndicesList.get(i)].getCap() >= maxTransportLoad) {
+            if (problem.getVehicle(vehiclesIndicesList.get(i)).getCap() >= maxTransportLoad) {
                 bonusVehicleIndex = vehiclesIndicesList.get(i);
-                bonusVehicle = vehiclesArray[bonusVehicleIndex];
+                bonusVehicle = problem.getVehicle(bonusVehicleIndex);
                 break;
             }
         }
@@ -109,6 +144,9 @@ class GeneticService {
             Gene bonusGene = null;
             if (transportsIndicesList.size() != 0) {
                 bonusGene = createGene(bonusVehicle.getDepot(), bonusVehicleIndex, bonusVehicle.getFixCost(), transportsIndicesList, strategy);
+                if (bonusGene == null) {
+                    return null;
+                }
                 genesList.add(bonusGene);
             }
         }
@@ -120,15 +158,17 @@ class GeneticService {
 
                 // find all the vehicles on use that have load >= this unassigned transport
                 for (int j = 0; j < genesList.size(); j++) {
-                    if (vehiclesArray[genesList.get(j).getVehicleIndex()].getCap() >= transportsArray[transportsIndicesList.get(i)].getAmount()) {
+                    if (problem.getVehicle(genesList.get(j).getVehicleIndex()).getCap() >= problem.getTransport(transportsIndicesList.get(i)).getAmount()) {
                         assignableIndicesInGenes.add(j);
                     }
                 }
+                if (assignableIndicesInGenes.isEmpty()) {
+                    return null;
+                }
                 // get one random assignable vehicle
-                Collections.shuffle(assignableIndicesInGenes);
-                Gene choosenGeneToAssign = genesList.get(assignableIndicesInGenes.get(0));
+                Gene choosenGeneToAssign = genesList.get(assignableIndicesInGenes.get(random.nextInt(assignableIndicesInGenes.size())));
                 // assign to vehicle
-                ArrayList<Integer> additionalIndex = new ArrayList<>();
+                TransportSet additionalIndex = new TransportSet(1);
                 additionalIndex.add(transportsIndicesList.get(i));
                 assignMoreTransportsToGene(choosenGeneToAssign, additionalIndex);
             }
@@ -140,25 +180,25 @@ class GeneticService {
      * This method generate an individual using strategy 3. Here, each transport will be assigned to nearest depot.
      * Strategy 3 build route randomly by shuffling the transport nodes.
      *
-     * @return an Individual.
+     * @return an Individual, null if a route is infeasible.
      */
     public Chromosome createChromosomeBestDepotsRandomRoute() {
         // map depots with transports and depots with vehicles
         // each transport should be assigned to nearest depot
         // on each depot, a number of vehicles would be choosen.
         HashMap<Integer, ArrayList<Integer>> mapDepotsAndVehicles = new HashMap<>();
-        HashMap<Integer, ArrayList<Integer>> mapDepotsAndAssignedTransports = new HashMap<>();
+        HashMap<Integer, TransportSet> mapDepotsAndAssignedTransports = new HashMap<>();
         // generate keys (depots) of maps.
-        for (int i = 0; i < vehiclesArray.length; i++) {
-            mapDepotsAndVehicles.put(vehiclesArray[i].getDepot(), new ArrayList<>());
-            mapDepotsAndAssignedTransports.put(vehiclesArray[i].getDepot(), new ArrayList<>());
+        for (int i = 0; i < problem.getVehiclesCount(); i++) {
+            mapDepotsAndVehicles.put(problem.getVehicle(i).getDepot(), new ArrayList<>());
+            mapDepotsAndAssignedTransports.put(problem.getVehicle(i).getDepot(), new TransportSet());
         }
         // add all vehicles available as values to their corresponding depots
-        for (int i = 0; i < vehiclesArray.length; i++) {
-            mapDepotsAndVehicles.get(vehiclesArray[i].getDepot()).add(i);
+        for (int i = 0; i < problem.getVehiclesCount(); i++) {
+            mapDepotsAndVehicles.get(problem.getVehicle(i).getDepot()).add(i);
         }
         // assigns transports to best depots
-        for (int i = 0; i < transportsArray.length; i++) {
+        for (int i = 0; i < problem.getTransportsCount(); i++) {
             // get all depots
             HashSet<Integer> depots = new HashSet<>();
             mapDepotsAndVehicles.keySet().forEach(key -> {
@@ -170,35 +210,36 @@ class GeneticService {
             int finalI = i;
             // find min distance
             depots.forEach(depot -> {
-                int totalDistance = distanceMatrix[depot][transportsArray[finalI].getFrom()] + distanceMatrix[transportsArray[finalI].getTo()][depot];
-                if (totalDistance < minDistance[0] && transportsArray[finalI].getAmount() <= maxVehicleCap(mapDepotsAndVehicles.get(depot))) {
+                int totalDistance = problem.getDistance(depot, problem.getTransport(finalI).getFrom()) + problem.getDistance(problem.getTransport(finalI).getTo(), depot);
+                if (totalDistance < minDistance[0] && problem.getTransport(finalI).getAmount() <= maxVehicleCap(mapDepotsAndVehicles.get(depot))) {
                     minDistance[0] = totalDistance;
                 }
             });
             // find all depot with this min distance and have max vehicle cap bigger than max transport load, then save to choosenDepots List
             depots.forEach(depot -> {
-                int totalDistance = distanceMatrix[depot][transportsArray[finalI].getFrom()] + distanceMatrix[transportsArray[finalI].getTo()][depot];
-                if (totalDistance == minDistance[0] && transportsArray[finalI].getAmount() <= maxVehicleCap(mapDepotsAndVehicles.get(depot))) {
+                int totalDistance = problem.getDistance(depot, problem.getTransport(finalI).getFrom()) + problem.getDistance(problem.getTransport(finalI).getTo(), depot);
+                if (totalDistance == minDistance[0] && problem.getTransport(finalI).getAmount() <= maxVehicleCap(mapDepotsAndVehicles.get(depot))) {
                     choosenDepots.add(depot);
                 }
             });
 
             // choose one random of best depot and assign transport to it
-            Collections.shuffle(choosenDepots);
+            Collections.shuffle(choosenDepots, ThreadLocalRandom.current());
             mapDepotsAndAssignedTransports.get(choosenDepots.get(0)).add(i);
         }
         ArrayList<Gene> genesList = new ArrayList<>();
+        boolean[] routeIsInvalid = {false};
         // at each depots, assign transports to available vehicles
         mapDepotsAndAssignedTransports.forEach((depot, assignedTransports) -> {
             // get vehicles at depot
             ArrayList<Integer> indexOfVehiclesAtDepot = mapDepotsAndVehicles.get(depot);
-            Collections.shuffle(indexOfVehiclesAtDepot);
+            Collections.shuffle(indexOfVehiclesAtDepot, ThreadLocalRandom.current());
             Gene[] genes = new Gene[indexOfVehiclesAtDepot.size()];
             // assigns transports to vehicles
             for (int v = 0; v < indexOfVehiclesAtDepot.size(); v++) {
                 int takeVehicleCode = indexOfVehiclesAtDepot.get(v);
-                Vehicle vehicle = vehiclesArray[takeVehicleCode];
-                ArrayList<Integer> assignedTransportsIndices = assignRandomTransportsToThisVehicle(assignedTransports, vehicle.getCap()); // transportsIndicesList changed
+                Vehicle vehicle = problem.getVehicle(takeVehicleCode);
+                TransportSet assignedTransportsIndices = assignRandomTransportsToThisVehicle(assignedTransports, vehicle.getCap()); // assignedTransports changed
                 if (assignedTransportsIndices.size() != 0) {
                     // firstly create gene with emty route, because there will be rest transports to re-assign
                     Gene gene = createGene(depot, takeVehicleCode, vehicle.getFixCost(), assignedTransportsIndices, 3);
@@ -210,12 +251,13 @@ class GeneticService {
 
             }
             // assign rest transports
-            while (assignedTransports.size() != 0) {
+            int next = 0;
+            while (next < assignedTransports.size()) {
                 for (int i = 0; i < genes.length; i++) {
-                    if (vehiclesArray[genes[i].getVehicleIndex()].getCap() >= transportsArray[assignedTransports.get(0)].getAmount()) {
-                        genes[i].addToTransportsIndicesList(assignedTransports.get(0));
-                        assignedTransports.remove(0);
-                        if (assignedTransports.size() == 0) {
+                    if (problem.getVehicle(genes[i].getVehicleIndex()).getCap() >= problem.getTransport(assignedTransports.get(next)).getAmount()) {
+                        genes[i].addToTransportsIndicesList(assignedTransports.get(next));
+                        next++;
+                        if (next == assignedTransports.size()) {
                             break;
                         }
                     }
@@ -223,11 +265,12 @@ class GeneticService {
             }
             // create route with strategy 3
             for (int i = 0; i < genes.length; i++) {
-                ArrayList<Integer> assignedTransportsOfThisGene = genes[i].getTransportsIndicesList();
+                TransportSet assignedTransportsOfThisGene = genes[i].getTransportsIndicesList();
                 if (assignedTransportsOfThisGene.size() != 0) {
-                    ArrayList<TransportNode> route = createTransportsRouteOfThisGene3(genes[i].getVehicleIndex(), assignedTransportsOfThisGene);
+                    Route route = createTransportsRouteOfThisGene3(genes[i].getVehicleIndex(), assignedTransportsOfThisGene);
                     if (transportsRouteIsInvalid(depot, genes[i].getVehicleIndex(), assignedTransportsOfThisGene, route)) {
-                        throw new RuntimeException("ROUTE IS INVALID");
+                        routeIsInvalid[0] = true;
+                        return;
                     }
                     genes[i].setRoute(route);
                     genes[i].setTotalTime(caculateTotalTimeOfThisRoute(genes[i].getVehicleIndex(), route));
@@ -236,106 +279,95 @@ class GeneticService {
                 }
             }
         });
+        if (routeIsInvalid[0]) {
+            return null;
+        }
         return new Chromosome(genesList.toArray(new Gene[genesList.size()]));
     }
 
 
     public Chromosome recombinationFromGenesArray(Gene[] genesArray) {
-        ArrayList<Integer> allTransportsIndices = new ArrayList<>();
-        for (int i = 0; i < transportsArray.length; i++) {
-            allTransportsIndices.add(transportsArray[i].getCode());
-        }
-        HashMap<Integer, HashSet<Integer>> vehicleTransportsMap = new HashMap<>();
-        for (int i = 0; i < vehiclesArray.length; i++) {
-            vehicleTransportsMap.put(vehiclesArray[i].getCode(), new HashSet<>());
+        TransportSet[] vehicleTransports = new TransportSet[problem.getVehiclesCount()];
+        for (int i = 0; i < problem.getVehiclesCount(); i++) {
+            vehicleTransports[i] = new TransportSet();
         }
         for (int i = 0; i < genesArray.length; i++) {
-            vehicleTransportsMap.get(genesArray[i].getVehicleIndex()).addAll(genesArray[i].getTransportsIndicesList());
-            allTransportsIndices.removeAll(genesArray[i].getTransportsIndicesList());
+            vehicleTransports[genesArray[i].getVehicleIndex()].addAll(genesArray[i].getTransportsIndicesList());
         }
-        while (allTransportsIndices.size() != 0) {
-            int transportIndex = allTransportsIndices.remove(0);
-            Set<Integer> vehicles = vehicleTransportsMap.keySet();
-            int vehicleIndex = (int) vehicles.stream().filter((key) -> vehiclesArray[key].getCap() >= transportsArray[transportIndex].getAmount()).toArray()[0];
-            vehicleTransportsMap.get(vehicleIndex).add(transportIndex);
-        }
-
-        HashSet<Integer> assignedSet = new HashSet<>();
-        vehicleTransportsMap.forEach((key, value) -> {
-            value.removeIf(v -> assignedSet.contains(v));
-            assignedSet.addAll(value);
-        });
-
-        ArrayList<Gene> genesOfChild = new ArrayList<>();
-        vehicleTransportsMap.forEach((key, value) -> {
-            if (value.size() != 0) {
-                Gene gene = new Gene(vehiclesArray[key].getDepot(), vehiclesArray[key].getCode(), vehiclesArray[key].getFixCost());
-                ArrayList<Integer> transports = new ArrayList<>(value);
-                gene.setTransportsIndicesList(transports);
-                ArrayList<TransportNode> route = createTransportsRouteOfThisGene1(key, transports);
-                gene.setRoute(route);
-                gene.setTotalTime(caculateTotalTimeOfThisRoute(key, route));
-                gene.setTotalMautKm(caculateTotalMautKmOfThisRoute(key, route));
-                genesOfChild.add(gene);
-            }
-        });
-        return new Chromosome(genesOfChild.toArray(Gene[]::new));
+        return createChildFromVehicleTransports(vehicleTransports);
     }
 
     public Chromosome recombinationOf2Chromosomes(Chromosome parent1, Chromosome parent2) {
-        ArrayList<Integer> allTransportsIndices = new ArrayList<>();
-        for (int i = 0; i < transportsArray.length; i++) {
-            allTransportsIndices.add(transportsArray[i].getCode());
-        }
         int upperBound = Math.max(parent1.getGenesList().length, parent2.getGenesList().length);
         int lowerBound = Math.min(parent1.getGenesList().length, parent2.getGenesList().length);
-        int numberOfGenesInChild = new Random().nextInt(upperBound - lowerBound + 1) + lowerBound;
-        HashMap<Integer, HashSet<Integer>> vehicleTransportsMap = new HashMap<>();
-        for (int i = 0; i < vehiclesArray.length; i++) {
-            vehicleTransportsMap.put(vehiclesArray[i].getCode(), new HashSet<>());
+        int numberOfGenesInChild = ThreadLocalRandom.current().nextInt(upperBound - lowerBound + 1) + lowerBound;
+        TransportSet[] vehicleTransports = new TransportSet[problem.getVehiclesCount()];
+        for (int i = 0; i < problem.getVehiclesCount(); i++) {
+            vehicleTransports[i] = new TransportSet();
         }
         int count1 = 0;
         int count2 = 1;
         while (numberOfGenesInChild != 0) {
             if (numberOfGenesInChild % 2 == 0) {
                 int index = Math.min(count1, parent1.getGenesList().length - 1);
-                vehicleTransportsMap.get(parent1.getGenesList()[index].getVehicleIndex()).addAll(parent1.getGenesList()[index].getTransportsIndicesList());
-                allTransportsIndices.removeAll(parent1.getGenesList()[index].getTransportsIndicesList());
+                vehicleTransports[parent1.getGenesList()[index].getVehicleIndex()].addAll(parent1.getGenesList()[index].getTransportsIndicesList());
                 count1 = count1 + 2;
             } else {
                 int index = Math.min(count2, parent2.getGenesList().length - 1);
-                vehicleTransportsMap.get(parent2.getGenesList()[index].getVehicleIndex()).addAll(parent2.getGenesList()[index].getTransportsIndicesList());
-                allTransportsIndices.removeAll(parent2.getGenesList()[index].getTransportsIndicesList());
+                vehicleTransports[parent2.getGenesList()[index].getVehicleIndex()].addAll(parent2.getGenesList()[index].getTransportsIndicesList());
                 count2 = count2 + 2;
             }
             numberOfGenesInChild--;
         }
-        while (allTransportsIndices.size() != 0) {
-            int transportIndex = allTransportsIndices.remove(0);
-            Set<Integer> vehicles = vehicleTransportsMap.keySet();
-            int vehicleIndex = (int) vehicles.stream().filter((key) -> vehiclesArray[key].getCap() >= transportsArray[transportIndex].getAmount()).toArray()[0];
-            vehicleTransportsMap.get(vehicleIndex).add(transportIndex);
-        }
+        return createChildFromVehicleTransports(vehicleTransports);
+    }
 
-        HashSet<Integer> assignedSet = new HashSet<>();
-        vehicleTransportsMap.forEach((key, value) -> {
-            value.removeIf(v -> assignedSet.contains(v));
-            assignedSet.addAll(value);
-        });
+    /**
+     * This method creates a child from the transports inherited by each vehicle. A transport inherited more than once stays only at
+     * the vehicle with the smallest index, a transport not inherited is assigned to the first vehicle with enough capacity.
+     *
+     * @param vehicleTransports inherited transports of each vehicle, indexed by vehicle index
+     * @return the child
+     */
+    private Chromosome createChildFromVehicleTransports(TransportSet[] vehicleTransports) {
+        boolean[] assigned = new boolean[problem.getTransportsCount()];
+        for (int v = 0; v < vehicleTransports.length; v++) {
+            TransportSet inherited = vehicleTransports[v];
+            TransportSet kept = new TransportSet(inherited.size());
+            for (int i = 0; i < inherited.size(); i++) {
+                int transportIndex = inherited.get(i);
+                if (!assigned[transportIndex]) {
+                    assigned[transportIndex] = true;
+                    kept.add(transportIndex);
+                }
+            }
+            vehicleTransports[v] = kept;
+        }
+        for (int t = 0; t < problem.getTransportsCount(); t++) {
+            if (!assigned[t]) {
+                // the first vehicle of the first class with enough capacity is the first such vehicle of the fleet
+                for (int c = 0; c < problem.getVehicleClassesCount(); c++) {
+                    int v = problem.getVehicleOfClass(c, 0);
+                    if (problem.getVehicle(v).getCap() >= problem.getTransport(t).getAmount()) {
+                        vehicleTransports[v].add(t);
+                        break;
+                    }
+                }
+            }
+        }
 
         ArrayList<Gene> genesOfChild = new ArrayList<>();
-        vehicleTransportsMap.forEach((key, value) -> {
-            if (value.size() != 0) {
-                Gene gene = new Gene(vehiclesArray[key].getDepot(), vehiclesArray[key].getCode(), vehiclesArray[key].getFixCost());
-                ArrayList<Integer> transports = new ArrayList<>(value);
-                gene.setTransportsIndicesList(transports);
-                ArrayList<TransportNode> route = createTransportsRouteOfThisGene1(key, transports);
+        for (int v = 0; v < vehicleTransports.length; v++) {
+            if (vehicleTransports[v].size() != 0) {
+                Gene gene = new Gene(problem.getVehicle(v).getDepot(), problem.getVehicle(v).getCode(), problem.getVehicle(v).getFixCost());
+                gene.setTransportsIndicesList(vehicleTransports[v]);
+                Route route = createTransportsRouteOfThisGene1(v, vehicleTransports[v]);
                 gene.setRoute(route);
-                gene.setTotalTime(caculateTotalTimeOfThisRoute(key, route));
-                gene.setTotalMautKm(caculateTotalMautKmOfThisRoute(key, route));
+                gene.setTotalTime(caculateTotalTimeOfThisRoute(v, route));
+                gene.setTotalMautKm(caculateTotalMautKmOfThisRoute(v, route));
                 genesOfChild.add(gene);
             }
-        });
+        }
         return new Chromosome(genesOfChild.toArray(Gene[]::new));
     }
 
@@ -351,20 +383,20 @@ class GeneticService {
      * @param deployCost                the deploy cost of vehicle
      * @param assignedTransportsIndices the transports indices to be assigned to this gene
      * @param strategy                  the strategy
-     * @return Gene
+     * @return Gene, null if the route of strategy 1 or 2 is infeasible
      */
-    private Gene createGene(int depot, int vehicleIndex, int deployCost, ArrayList<Integer> assignedTransportsIndices, int strategy) {
+    private Gene createGene(int depot, int vehicleIndex, int deployCost, TransportSet assignedTransportsIndices, int strategy) {
         Gene gene = new Gene(depot, vehicleIndex, deployCost);
         gene.setTransportsIndicesList(assignedTransportsIndices);
-        ArrayList<TransportNode> route;
+        Route route;
         if (strategy == 1 || strategy == 2) { // only strategy 1 and 2
             if (strategy == 1) {
                 route = createTransportsRouteOfThisGene1(vehicleIndex, assignedTransportsIndices);
             } else {
-                route = createTransportsRouteOfThisGene2(vehicleIndex, (ArrayList<Integer>) assignedTransportsIndices.clone());
+                route = createTransportsRouteOfThisGene2(vehicleIndex, assignedTransportsIndices);
             }
             if (transportsRouteIsInvalid(depot, vehicleIndex, assignedTransportsIndices, route)) {
-                throw new RuntimeException("ROUTE IS INVALID");
+                return null;
             }
             gene.setRoute(route);
             gene.setTotalMautKm(caculateTotalMautKmOfThisRoute(vehicleIndex, route));
@@ -380,19 +412,11 @@ class GeneticService {
      * @param assignedTransportsIndices assigned transports in this route
      * @return a route
      */
-    public ArrayList<TransportNode> createTransportsRouteOfThisGene1(int vehicleIndex, ArrayList<Integer> assignedTransportsIndices) {
-        ArrayList<TransportNode> route = new ArrayList<>();
-        TransportNode start = new TransportNode(-1, false);
-        TransportNode end = new TransportNode(-1, false);
-        Vehicle vehicle = vehiclesArray[vehicleIndex];
-        int vehicleCap = vehicle.getCap();
-        int vehicleLoadFactor = vehicle.getLoadFactor();
-        int vehicleSpeed = vehicle.getSpeed();
-        int depot = vehicle.getDepot();
-        route.add(start);
-        route.add(end);
+    public Route createTransportsRouteOfThisGene1(int vehicleIndex, TransportSet assignedTransportsIndices) {
+        Route route = Route.emptyRoute(2 * assignedTransportsIndices.size() + 2);
+        Vehicle vehicle = problem.getVehicle(vehicleIndex);
         for (int i = 0; i < assignedTransportsIndices.size(); i++) {
-            assignThisTransportToRouteInBestPosition(assignedTransportsIndices.get(i), route, vehicleCap, vehicleLoadFactor, vehicleSpeed, depot);
+            assignThisTransportToRouteInBestPosition(assignedTransportsIndices.get(i), route, vehicleIndex);
         }
         return route;
     }
@@ -404,22 +428,21 @@ class GeneticService {
      * @param assignedTransportsIndices assigned transports in this route
      * @return a route
      */
-    public ArrayList<TransportNode> createTransportsRouteOfThisGene2(int vehicleIndex, ArrayList<Integer> assignedTransportsIndices) {
-        Vehicle vehicle = vehiclesArray[vehicleIndex];
+    public Route createTransportsRouteOfThisGene2(int vehicleIndex, TransportSet assignedTransportsIndices) {
+        Vehicle vehicle = problem.getVehicle(vehicleIndex);
         int actualNode = vehicle.getDepot();
-        int speed = vehicle.getSpeed();
+        int speedClass = problem.getSpeedClass(vehicleIndex);
         int cap = vehicle.getCap();
-        int loadFactor = vehicle.getLoadFactor();
+        int loadFactorClass = problem.getLoadFactorClass(vehicleIndex);
         int load = 0;
         int actualTime = 0;
-        TransportNode start = new TransportNode(-1, false);
-        TransportNode end = new TransportNode(-1, false);
-        ArrayList<TransportNode> route = new ArrayList<>();
-        route.add(start);
-        ArrayList<Integer> toDeliveryTransportsIndices = new ArrayList<>();
-        ArrayList<Integer> pickupTransportsIndices = new ArrayList<>(assignedTransportsIndices);
-        Collections.shuffle(pickupTransportsIndices);
-        while (assignedTransportsIndices.size() != 0) {
+        Route route = new Route(2 * assignedTransportsIndices.size() + 2);
+        route.add(Route.DEPOT);
+        TransportSet toDeliveryTransportsIndices = new TransportSet();
+        TransportSet pickupTransportsIndices = assignedTransportsIndices.copy();
+        pickupTransportsIndices.shuffle(ThreadLocalRandom.current());
+        int undeliveredTransports = assignedTransportsIndices.size();
+        while (undeliveredTransports != 0) {
             ObjectivesPoint optimizeValuePickUp = new ObjectivesPoint(Double.MAX_VALUE, Double.MAX_VALUE);
             ObjectivesPoint optimizeValueDelivery = new ObjectivesPoint(Double.MAX_VALUE, Double.MAX_VALUE);
             int choosenPickUpTransportIndex = -1;
@@ -427,10 +450,12 @@ class GeneticService {
             int optTimePickUp = 0;
             int optTimeDelivery = 0;
             for (int i = 0; i < pickupTransportsIndices.size(); i++) {
-                if (load + transportsArray[pickupTransportsIndices.get(i)].getAmount() <= cap) {
-                    int mautKm = mautKmMatrix[actualNode][transportsArray[pickupTransportsIndices.get(i)].getFrom()];
-                    int timePickUp = Math.max(actualTime + distanceMatrix[actualNode][transportsArray[pickupTransportsIndices.get(i)].getFrom()] / speed, transportsArray[pickupTransportsIndices.get(i)].getActiveTimeOfPickup())
-                            + transportsArray[pickupTransportsIndices.get(i)].getAmount() / loadFactor;
+                int transportIndex = pickupTransportsIndices.get(i);
+                Transport transport = problem.getTransport(transportIndex);
+                if (load + transport.getAmount() <= cap) {
+                    int mautKm = problem.getMautKm(actualNode, transport.getFrom());
+                    int timePickUp = Math.max(actualTime + problem.getRideTime(speedClass, actualNode, transport.getFrom()), transport.getActiveTimeOfPickup())
+                            + problem.getServiceTime(loadFactorClass, transportIndex);
                     ObjectivesPoint opt = new ObjectivesPoint(mautKm, timePickUp);
                     if (opt.isDominance(optimizeValuePickUp)) {
                         choosenPickUpTransportIndex = pickupTransportsIndices.get(i);
@@ -440,9 +465,11 @@ class GeneticService {
                 }
             }
             for (int i = 0; i < toDeliveryTransportsIndices.size(); i++) {
-                int mautKm = mautKmMatrix[actualNode][transportsArray[toDeliveryTransportsIndices.get(i)].getTo()];
-                int timeDelivery = Math.max(actualTime + distanceMatrix[actualNode][transportsArray[toDeliveryTransportsIndices.get(i)].getTo()] / speed, transportsArray[toDeliveryTransportsIndices.get(i)].getActiveTimeOfDelivery())
-                        + transportsArray[toDeliveryTransportsIndices.get(i)].getAmount() / loadFactor;
+                int transportIndex = toDeliveryTransportsIndices.get(i);
+                Transport transport = problem.getTransport(transportIndex);
+                int mautKm = problem.getMautKm(actualNode, transport.getTo());
+                int timeDelivery = Math.max(actualTime + problem.getRideTime(speedClass, actualNode, transport.getTo()), transport.getActiveTimeOfDelivery())
+                        + problem.getServiceTime(loadFactorClass, transportIndex);
                 ObjectivesPoint opt = new ObjectivesPoint(mautKm, timeDelivery);
                 if (opt.isDominance(optimizeValueDelivery)) {
                     choosenDeliveryTransportIndex = toDeliveryTransportsIndices.get(i);
@@ -451,20 +478,20 @@ class GeneticService {
                 }
             }
             if (optimizeValuePickUp.isDominance(optimizeValueDelivery)) {
-                route.add(new TransportNode(choosenPickUpTransportIndex, true));
-                pickupTransportsIndices.remove(Integer.valueOf(choosenPickUpTransportIndex));
+                route.add(Route.pickUp(choosenPickUpTransportIndex));
+                pickupTransportsIndices.remove(choosenPickUpTransportIndex);
                 toDeliveryTransportsIndices.add(choosenPickUpTransportIndex);
-                load = load + transportsArray[choosenPickUpTransportIndex].getAmount();
+                load = load + problem.getTransport(choosenPickUpTransportIndex).getAmount();
                 actualTime = optTimePickUp;
             } else {
-                route.add(new TransportNode(choosenDeliveryTransportIndex, false));
-                toDeliveryTransportsIndices.remove(Integer.valueOf(choosenDeliveryTransportIndex));
-                assignedTransportsIndices.remove(Integer.valueOf(choosenDeliveryTransportIndex));
-                load = load - transportsArray[choosenDeliveryTransportIndex].getAmount();
+                route.add(Route.delivery(choosenDeliveryTransportIndex));
+                toDeliveryTransportsIndices.remove(choosenDeliveryTransportIndex);
+                undeliveredTransports--;
+                load = load - problem.getTransport(choosenDeliveryTransportIndex).getAmount();
                 actualTime = optTimeDelivery;
             }
         }
-        route.add(end);
+        route.add(Route.DEPOT);
         return route;
     }
 
@@ -476,16 +503,14 @@ class GeneticService {
      * @param assignedTransportsIndices assigned transports in this route
      * @return a route
      */
-    public ArrayList<TransportNode> createTransportsRouteOfThisGene3(int vehicleIndex, ArrayList<Integer> assignedTransportsIndices) {
-        ArrayList<TransportNode> route = new ArrayList<>();
-        route.add(new TransportNode(-1, false));
-        assignedTransportsIndices.forEach(index -> {
-            TransportNode pickup = new TransportNode(index, true);
-            route.add(pickup);
-            TransportNode delivery = new TransportNode(index, false);
-            route.add(delivery);
-        });
-        route.add(new TransportNode(-1, false));
+    public Route createTransportsRouteOfThisGene3(int vehicleIndex, TransportSet assignedTransportsIndices) {
+        Route route = new Route(2 * assignedTransportsIndices.size() + 2);
+        route.add(Route.DEPOT);
+        for (int i = 0; i < assignedTransportsIndices.size(); i++) {
+            route.add(Route.pickUp(assignedTransportsIndices.get(i)));
+            route.add(Route.delivery(assignedTransportsIndices.get(i)));
+        }
+        route.add(Route.DEPOT);
         shuffleThisRoute(vehicleIndex, route, assignedTransportsIndices, true);
         return route;
     }
@@ -496,72 +521,61 @@ class GeneticService {
      * @param vehicleIndex index of vehicle in vehicle array, which is used by this route
      * @param route        the route to shuffle
      * @param toOptimize   determine if this method is called to optimize the route
-     * @return a new route
      */
-    public void shuffleThisRoute(int vehicleIndex, ArrayList<TransportNode> route, ArrayList<Integer> transportsIndices, boolean toOptimize) {
-        int vehicleDepot = vehiclesArray[vehicleIndex].getDepot();
-        int vehicleSpeed = vehiclesArray[vehicleIndex].getSpeed();
-        int vehicleLoadFactor = vehiclesArray[vehicleIndex].getLoadFactor();
-        int vehicleCap = vehiclesArray[vehicleIndex].getCap();
+    public void shuffleThisRoute(int vehicleIndex, Route route, TransportSet transportsIndices, boolean toOptimize) {
+        int vehicleDepot = problem.getVehicle(vehicleIndex).getDepot();
+        Random random = ThreadLocalRandom.current();
+        int[] pickUpIndices = new int[route.size()];
+        if (route.size() <= 2) {
+            return;
+        }
 
         for (int i = 0; i < route.size(); i++) {
             PickUpDeliveryIndexValue posiblePosition = null;
             double time = caculateTotalTimeOfThisRoute(vehicleIndex, route);
             double mautKm = caculateTotalMautKmOfThisRoute(vehicleIndex, route);
             ObjectivesPoint routeOldValue = new ObjectivesPoint(mautKm, time);
-            ArrayList<Integer> pickUpIndices = new ArrayList<>();
+            int pickUpsCount = 0;
             for (int j = 1; j < route.size() - 1; j++) {
-                if (route.get(j).isPickUp()) {
-                    pickUpIndices.add(j);
-                }
-            }
-            Collections.shuffle(pickUpIndices);
-            ArrayList<TransportNode> examRoute = new ArrayList<>(route);
-            int randomPickUpIndex = pickUpIndices.get(0);
-            int correspondingDeliveryIndex = -1;
-            for (int r = 0; r < route.size() - 1; r++) {
-                if (route.get(r).getTransportIndex() == route.get(randomPickUpIndex).getTransportIndex() && !route.get(r).isPickUp()) {
-                    correspondingDeliveryIndex = r;
-                    break;
+                if (route.isPickUp(j)) {
+                    pickUpIndices[pickUpsCount] = j;
+                    pickUpsCount++;
                 }
             }
-            int swapPositionPickUp = helperService.generateNRandomNumberBetween(examRoute.size() - 2, 1, 1).get(0);
-            Collections.swap(examRoute, randomPickUpIndex, swapPositionPickUp);
+            Route examRoute = route.copy();
+            int randomPickUpIndex = pickUpIndices[random.nextInt(pickUpsCount)];
+            int correspondingDeliveryIndex = route.indexOf(Route.delivery(route.getTransportIndex(randomPickUpIndex)));
+            int swapPositionPickUp = 1 + random.nextInt(examRoute.size() - 2);
+            examRoute.swap(randomPickUpIndex, swapPositionPickUp);
             if (swapPositionPickUp != route.size() - 2) {
-                int swapPositionDelivery = helperService.generateNRandomNumberBetween(examRoute.size() - 2, swapPositionPickUp + 1, 1).get(0);
-                Collections.swap(examRoute, correspondingDeliveryIndex, swapPositionDelivery);
-                if (!transportsRouteIsInvalid(vehicleDepot, vehicleIndex, transportsIndices, examRoute)) {
-                    ObjectivesPoint valueAfterSwap = caculateValueOfTransportsRoute(vehicleCap, vehicleSpeed, vehicleLoadFactor, vehicleDepot, examRoute);
+                int swapPositionDelivery = swapPositionPickUp + 1 + random.nextInt(examRoute.size() - 2 - swapPositionPickUp);
+                examRoute.swap(correspondingDeliveryIndex, swapPositionDelivery);
+                ObjectivesPoint valueAfterSwap = caculateValueOfTransportsRoute(vehicleIndex, vehicleDepot, examRoute);
+                if (valueAfterSwap.isValid() && checkTransportRouteHasAllAssignments(examRoute, transportsIndices)) {
                     posiblePosition = new PickUpDeliveryIndexValue(randomPickUpIndex, swapPositionPickUp, correspondingDeliveryIndex, swapPositionDelivery, valueAfterSwap);
                 }
             } else {
-                TransportNode delivery = examRoute.remove(correspondingDeliveryIndex);
+                int delivery = examRoute.remove(correspondingDeliveryIndex);
                 examRoute.add(examRoute.size() - 1, delivery);
-                if (!transportsRouteIsInvalid(vehicleDepot, vehicleIndex, transportsIndices, examRoute)) {
-                    ObjectivesPoint valueAfterSwap = caculateValueOfTransportsRoute(vehicleCap, vehicleSpeed, vehicleLoadFactor, vehicleDepot, examRoute);
+                ObjectivesPoint valueAfterSwap = caculateValueOfTransportsRoute(vehicleIndex, vehicleDepot, examRoute);
+                if (valueAfterSwap.isValid() && checkTransportRouteHasAllAssignments(examRoute, transportsIndices)) {
                     posiblePosition = new PickUpDeliveryIndexValue(randomPickUpIndex, swapPositionPickUp, correspondingDeliveryIndex, route.size(), valueAfterSwap);
                 }
             }
             if (posiblePosition != null) {
+                boolean take;
                 if (toOptimize) {
-                    if (posiblePosition.getValue().isDominance(routeOldValue)) {
-                        Collections.swap(route, posiblePosition.getPickUpIndex(), posiblePosition.getPickUpIndexSwap());
-                        if (posiblePosition.getDeliveryIndexSwap() != route.size()) {
-                            Collections.swap(route, posiblePosition.getDeliveryIndex(), posiblePosition.getDeliveryIndexSwap());
-                        } else {
-                            TransportNode delivery = route.remove(posiblePosition.getDeliveryIndex());
-                            route.add(route.size() - 1, delivery);
-                        }
-                    }
+                    take = posiblePosition.getValue().isDominance(routeOldValue);
                 } else {
-                    if (!routeOldValue.isDominance(posiblePosition.getValue())) {
-                        Collections.swap(route, posiblePosition.getPickUpIndex(), posiblePosition.getPickUpIndexSwap());
-                        if (posiblePosition.getDeliveryIndexSwap() != route.size()) {
-                            Collections.swap(route, posiblePosition.getDeliveryIndex(), posiblePosition.getDeliveryIndexSwap());
-                        } else {
-                            TransportNode delivery = route.remove(posiblePosition.getDeliveryIndex());
-                            route.add(route.size() - 1, delivery);
-                        }
+                    take = !routeOldValue.isDominance(posiblePosition.getValue());
+                }
+                if (take) {
+                    route.swap(posiblePosition.getPickUpIndex(), posiblePosition.getPickUpIndexSwap());
+                    if (posiblePosition.getDeliveryIndexSwap() != route.size()) {
+                        route.swap(posiblePosition.getDeliveryIndex(), posiblePosition.getDeliveryIndexSwap());
+                    } else {
+                        int delivery = route.remove(posiblePosition.getDeliveryIndex());
+                        route.add(route.size() - 1, delivery);
                     }
                 }
             }
@@ -575,44 +589,57 @@ class GeneticService {
      * @param route             the route
      * @param transportsIndices the assigned Transports Indices
      * @param toOptimize        determine if this method is called to optimize the route
-     * @return a new route
      */
-    public void reassignSubRoute(int vehicleIndex, ArrayList<TransportNode> route, ArrayList<Integer> transportsIndices, boolean toOptimize) {
-        ArrayList<TransportNode> subRoute = new ArrayList<>();
-        ArrayList<Integer> pickupIndices = new ArrayList<>();
-        Vehicle vehicle = vehiclesArray[vehicleIndex];
-        ObjectivesPoint originalValue = caculateValueOfTransportsRoute(vehicle.getCap(), vehicle.getSpeed(), vehicle.getLoadFactor(), vehicle.getDepot(), route);
-
+    public void reassignSubRoute(int vehicleIndex, Route route, TransportSet transportsIndices, boolean toOptimize) {
+        Vehicle vehicle = problem.getVehicle(vehicleIndex);
+        ObjectivesPoint originalValue = caculateValueOfTransportsRoute(vehicleIndex, vehicle.getDepot(), route);
+        Random random = ThreadLocalRandom.current();
 
+        int pickUpsCount = 0;
         for (int i = 1; i < route.size() - 1; i++) {
-            if (route.get(i).isPickUp()) {
-                pickupIndices.add(i);
+            if (route.isPickUp(i)) {
+                pickUpsCount++;
+            }
+        }
+        if (pickUpsCount == 0) {
+            return;
+        }
+        int choosenPickUp = random.nextInt(pickUpsCount);
+        int subRouteStart = 1;
+        for (int i = 1; i < route.size() - 1; i++) {
+            if (route.isPickUp(i)) {
+                if (choosenPickUp == 0) {
+                    subRouteStart = i;
+                    break;
+                }
+                choosenPickUp--;
             }
         }
-        Collections.shuffle(pickupIndices);
-        int transportsIndex = route.get(pickupIndices.get(0)).getTransportIndex();
-        for (int i = pickupIndices.get(0); i < route.size() - 1; i++) {
-            subRoute.add(route.get(i));
-            if (route.get(i).getTransportIndex() == transportsIndex && !route.get(i).isPickUp()) {
+        // the sub-route goes from the choosen pickup to its delivery
+        int transportsIndex = route.getTransportIndex(subRouteStart);
+        int subRouteEnd = subRouteStart;
+        for (int i = subRouteStart; i < route.size() - 1; i++) {
+            subRouteEnd = i;
+            if (route.getTransportIndex(i) == transportsIndex && !route.isPickUp(i)) {
                 break;
             }
         }
-        route.removeAll(subRoute);
-        ArrayList<TransportNode> copyOfRoute = (ArrayList<TransportNode>) route.clone();
+        Route subRoute = route.removeRange(subRouteStart, subRouteEnd + 1);
+        Route copyOfRoute = route.copy();
         ObjectivesPoint maxValue = new ObjectivesPoint(Double.MAX_VALUE, Double.MAX_VALUE);
         int index = 0;
         ArrayList<Integer> assignableIndices = new ArrayList<>();
         for (int i = 1; i < copyOfRoute.size(); i++) {
             copyOfRoute.addAll(i, subRoute);
-            ObjectivesPoint value = caculateValueOfTransportsRoute(vehicle.getCap(), vehicle.getSpeed(), vehicle.getLoadFactor(), vehicle.getDepot(), copyOfRoute);
-            if (!transportsRouteIsInvalid(vehicle.getDepot(), vehicleIndex, transportsIndices, copyOfRoute)) {
+            ObjectivesPoint value = caculateValueOfTransportsRoute(vehicleIndex, vehicle.getDepot(), copyOfRoute);
+            if (value.isValid() && checkTransportRouteHasAllAssignments(copyOfRoute, transportsIndices)) {
                 if (toOptimize) {
                     if (value.isDominance(maxValue)) {
                         index = i;
                         maxValue.setToThisPoint(value);
                     }
                     else if(!maxValue.isDominance(value)) {
-                        boolean take = new Random().nextBoolean();
+                        boolean take = random.nextBoolean();
                         if(take) {
                             index = i;
                             maxValue.setToThisPoint(value);
@@ -622,60 +649,92 @@ class GeneticService {
                     assignableIndices.add(i);
                 }
             }
-            copyOfRoute.removeAll(subRoute);
+            copyOfRoute.removeRange(i, i + subRoute.size());
         }
+        // the sub-route goes back to its old position, if no new position is taken
         if (toOptimize) {
-            if (!originalValue.isDominance(maxValue)) {
+            if (maxValue.getX() != Double.MAX_VALUE && !originalValue.isDominance(maxValue)) {
                 route.addAll(index, subRoute);
+            } else {
+                route.addAll(subRouteStart, subRoute);
             }
+        } else if (!assignableIndices.isEmpty()) {
+            route.addAll(assignableIndices.get(random.nextInt(assignableIndices.size())), subRoute);
         } else {
-            Collections.shuffle(assignableIndices);
-            route.addAll(assignableIndices.get(0), subRoute);
+            route.addAll(subRouteStart, subRoute);
         }
     }
 
     public void reassignRoutesToBestDepots(Chromosome chromosome) {
-        ArrayList<Vehicle> vehicleList = new ArrayList<>();
-        Collections.addAll(vehicleList, vehiclesArray);
+        int[] availableCountOfClass = new int[problem.getVehicleClassesCount()];
+        for (int c = 0; c < availableCountOfClass.length; c++) {
+            availableCountOfClass[c] = problem.getVehiclesCountOfClass(c);
+        }
+        boolean[] vehicleTaken = new boolean[problem.getVehiclesCount()];
         Gene[] genesArray = chromosome.getGenesList();
+        Random random = ThreadLocalRandom.current();
 
         for (int i = 0; i < genesArray.length; i++) {
             Gene gene = genesArray[i];
             ObjectivesPoint bestValue = new ObjectivesPoint(Double.MAX_VALUE, Double.MAX_VALUE);
-            int choosenVehicleIndex = -1;
-            for (int j = 0; j < vehicleList.size(); j++) {
-                Vehicle vehicle = vehicleList.get(j);
-                ArrayList<TransportNode> route = gene.getRoute();
-                ObjectivesPoint value = caculateValueOfTransportsRoute(vehicle.getCap(), vehicle.getSpeed(), vehicle.getLoadFactor(), vehicle.getDepot(), route);
+            int choosenClass = -1;
+            // vehicles of a class give the same value, so every class is evaluated once with its first vehicle
+            for (int c = 0; c < availableCountOfClass.length; c++) {
+                if (availableCountOfClass[c] == 0) {
+                    continue;
+                }
+                Vehicle vehicle = problem.getVehicle(problem.getVehicleOfClass(c, 0));
+                Route route = gene.getRoute();
+                ObjectivesPoint value = cachedValueOfTransportsRoute(vehicle.getCode(), vehicle.getDepot(), route);
                 if (value.isValid()) {
                     if (value.isDominance(bestValue)) {
                         bestValue.setToThisPoint(value);
-                        choosenVehicleIndex = j;
+                        choosenClass = c;
                     }
                     else if(!bestValue.isDominance(value)) {
-                        boolean take = new Random().nextBoolean();
+                        boolean take = random.nextBoolean();
                         if(take) {
                             bestValue.setToThisPoint(value);
-                            choosenVehicleIndex = j;
+                            choosenClass = c;
                         }
                     }
                 }
             }
-            if (choosenVehicleIndex != -1) {
-                Vehicle choosenVehicle = vehicleList.get(choosenVehicleIndex);
+            if (choosenClass != -1) {
+                Vehicle choosenVehicle = problem.getVehicle(takeRandomVehicleOfClass(choosenClass, availableCountOfClass, vehicleTaken, random));
                 gene.setDepot(choosenVehicle.getDepot());
                 gene.setVehicleIndex(choosenVehicle.getCode());
 
                 gene.setDeployCost(choosenVehicle.getFixCost());
-                gene.setTotalMautKm(caculateTotalMautKmOfThisRoute(choosenVehicle.getCode(), gene.getRoute()));
-                gene.setTotalTime(caculateTotalTimeOfThisRoute(choosenVehicle.getCode(), gene.getRoute()));
-                vehicleList.remove(choosenVehicle);
+                gene.setTotalMautKm((int) bestValue.getX());
+                gene.setTotalTime((int) bestValue.getY());
+            }
+        }
+    }
+
+    /**
+     * Takes a random vehicle of a vehicle class, which is not taken yet.
+     *
+     * @return index of the vehicle in vehicle array
+     */
+    private int takeRandomVehicleOfClass(int vehicleClass, int[] availableCountOfClass, boolean[] vehicleTaken, Random random) {
+        int skip = random.nextInt(availableCountOfClass[vehicleClass]);
+        for (int i = 0; i < problem.getVehiclesCountOfClass(vehicleClass); i++) {
+            int vehicleIndex = problem.getVehicleOfClass(vehicleClass, i);
+            if (!vehicleTaken[vehicleIndex]) {
+                if (skip == 0) {
+                    vehicleTaken[vehicleIndex] = true;
+                    availableCountOfClass[vehicleClass]--;
+                    return vehicleIndex;
+                }
+                skip--;
             }
         }
+        throw new RuntimeException("no vehicle of class " + vehicleClass + " is available");
     }
 
     public void reassignTransportsBetweenRoutes(Chromosome chromosome) {
-        Random rand = new Random();
+        Random rand = ThreadLocalRandom.current();
         if (chromosome.getGenesList().length > 1) {
             int numberOfReassignments = rand.nextInt(chromosome.getGenesList().length - 1) + 1;
             while (numberOfReassignments != 0) {
@@ -687,17 +746,16 @@ class GeneticService {
                     removeTransportFromGene(choosenGene, removedTransport);
                     ArrayList<Integer> assignableGenes = new ArrayList<>();
                     for (int i = 0; i < chromosome.getGenesList().length; i++) {
-                        if (vehiclesArray[chromosome.getGenesList()[i].getVehicleIndex()].getCap() >= transportsArray[removedTransport].getAmount()) {
+                        if (problem.getVehicle(chromosome.getGenesList()[i].getVehicleIndex()).getCap() >= problem.getTransport(removedTransport).getAmount()) {
                             assignableGenes.add(i);
                         }
                     }
-                    Collections.shuffle(assignableGenes);
-                    Gene assignable = chromosome.getGenesList()[assignableGenes.get(0)];
+                    Gene assignable = chromosome.getGenesList()[assignableGenes.get(rand.nextInt(assignableGenes.size()))];
                     assignable.addToTransportsIndicesList(removedTransport);
-                    ArrayList<TransportNode> route = createTransportsRouteOfThisGene1(assignable.getVehicleIndex(), assignable.getTransportsIndicesList());
+                    Route route = createTransportsRouteOfThisGene1(assignable.getVehicleIndex(), assignable.getTransportsIndicesList());
                     assignable.setRoute(route);
-                    assignable.setTotalTime(caculateTotalTimeOfThisRoute(choosenGene.getVehicleIndex(), route));
-                    assignable.setTotalMautKm(caculateTotalMautKmOfThisRoute(choosenGene.getVehicleIndex(), route));
+                    assignable.setTotalTime(caculateTotalTimeOfThisRoute(assignable.getVehicleIndex(), route));
+                    assignable.setTotalMautKm(caculateTotalMautKmOfThisRoute(assignable.getVehicleIndex(), route));
                 }
                 numberOfReassignments--;
             }
@@ -713,336 +771,327 @@ class GeneticService {
     }
 
     private void removeTransportFromGene(Gene choosenGene, int removedTransportIndex) {
-        Vehicle v = vehiclesArray[choosenGene.getVehicleIndex()];
-        choosenGene.getTransportsIndicesList().remove(Integer.valueOf(removedTransportIndex));
-        ArrayList<TransportNode> route = createTransportsRouteOfThisGene1(choosenGene.getVehicleIndex(), choosenGene.getTransportsIndicesList());
+        choosenGene.getTransportsIndicesList().remove(removedTransportIndex);
+        Route route = createTransportsRouteOfThisGene1(choosenGene.getVehicleIndex(), choosenGene.getTransportsIndicesList());
         choosenGene.setRoute(route);
         choosenGene.setTotalTime(caculateTotalTimeOfThisRoute(choosenGene.getVehicleIndex(), route));
         choosenGene.setTotalMautKm(caculateTotalMautKmOfThisRoute(choosenGene.getVehicleIndex(), route));
     }
 
-    private void assignMoreTransportsToGene(Gene gene, ArrayList<Integer> moreTransportsAssignmentsIndices) {
-        ArrayList<TransportNode> route = gene.getRoute();
-        Vehicle vehicle = vehiclesArray[gene.getVehicleIndex()];
-        int vehicleCap = vehicle.getCap();
-        int vehicleLoadFactor = vehicle.getLoadFactor();
-        int vehicleSpeed = vehicle.getSpeed();
-        int depot = vehicle.getDepot();
+    private void assignMoreTransportsToGene(Gene gene, TransportSet moreTransportsAssignmentsIndices) {
+        Route route = gene.getRoute();
 
         for (int i = 0; i < moreTransportsAssignmentsIndices.size(); i++) {
             int transportIndex = moreTransportsAssignmentsIndices.get(i);
             gene.addToTransportsIndicesList(transportIndex);
-            assignThisTransportToRouteInBestPosition(transportIndex, route, vehicleCap, vehicleLoadFactor, vehicleSpeed, depot);
+            assignThisTransportToRouteInBestPosition(transportIndex, route, gene.getVehicleIndex());
         }
         gene.setTotalTime(caculateTotalTimeOfThisRoute(gene.getVehicleIndex(), route));
         gene.setTotalMautKm(caculateTotalMautKmOfThisRoute(gene.getVehicleIndex(), route));
     }
 
-    private void assignThisTransportToRouteInBestPosition(int assignedTransportsIndex, ArrayList<TransportNode> route, int vehicleCap, int vehicleLoadFactor, int vehicleSpeed, int depot) {
-        TransportNode pickup = new TransportNode(assignedTransportsIndex, true);
-        TransportNode delivery = new TransportNode(assignedTransportsIndex, false);
-        ArrayList<TransportNode> examRoute = new ArrayList<>(route);
-        ArrayList<PickUpDeliveryIndexValue> posiblePositions = new ArrayList<>();
-        ArrayList<Integer> totalLoadTilThisNode = new ArrayList<>();
-        totalLoadTilThisNode.add(0);
-        int load = 0;
-        for (int i = 1; i < route.size() - 1; i++) {
-            TransportNode node = route.get(i);
-            if (i != route.size() - 1) {
-                load = getLoad(load, node);
-                totalLoadTilThisNode.add(load);
-            }
-        }
-
-        totalLoadTilThisNode.add(0);
-        for (int p = 1; p < Math.max(2, examRoute.size() - 1); p++) {
-            if (totalLoadTilThisNode.get(p - 1) + transportsArray[pickup.getTransportIndex()].getAmount() <= vehicleCap) {
-                int assignableDeliveryIndexBoundBeforeVisitedPickUp = p;
-                for (int i = p; i < totalLoadTilThisNode.size() - 1; i++) {
-                    if (totalLoadTilThisNode.get(i) + transportsArray[pickup.getTransportIndex()].getAmount() <= vehicleCap) {
-                        assignableDeliveryIndexBoundBeforeVisitedPickUp = i;
-                    } else {
-                        i = totalLoadTilThisNode.size();
-                    }
-                }
-                examRoute.add(p, pickup);
-                for (int d = p + 1; d <= Math.max(2, assignableDeliveryIndexBoundBeforeVisitedPickUp + 1); d++) {
-                    examRoute.add(d, delivery);
-                    ObjectivesPoint routeValue = caculateValueOfTransportsRoute(vehicleCap, vehicleSpeed, vehicleLoadFactor, depot, examRoute);
-                    examRoute.remove(d);
-                    if (routeValue.isValid()) {
-                        posiblePositions.add(new PickUpDeliveryIndexValue(p, d, routeValue));
-                    } else {
-                        d = examRoute.size();
-                    }
-
-                }
-                examRoute.remove(p);
-            }
+    /**
+     * This method inserts the pickup and delivery of a transport into a route. Every position, which respects the vehicle capacity,
+     * is priced in constant time with the prefix and suffix data of the route, then one random position of the first front is taken.
+     *
+     * @param assignedTransportsIndex index of the transport in transports array
+     * @param route                   the route
+     * @param vehicleIndex            index of vehicle in vehicle array, which is used by this route
+     */
+    private void assignThisTransportToRouteInBestPosition(int assignedTransportsIndex, Route route, int vehicleIndex) {
+        Vehicle vehicle = problem.getVehicle(vehicleIndex);
+        RouteInsertionProfile profile = new RouteInsertionProfile(problem, problem.getSpeedClass(vehicleIndex), problem.getLoadFactorClass(vehicleIndex));
+        profile.build(route, vehicle.getDepot());
+        int candidatesCount = profile.priceInsertions(assignedTransportsIndex, vehicle.getCap());
+        ArrayList<ChromosomeKeyObjectiveValue> toSort = new ArrayList<>(candidatesCount);
+        for (int c = 0; c < candidatesCount; c++) {
+            toSort.add(new ChromosomeKeyObjectiveValue(c, new ObjectivesPoint(profile.getCandidateMautKm(c), profile.getCandidateTime(c))));
         }
-        ArrayList<PickUpDeliveryIndexValue> bestPositions = new ArrayList<>();
-        ArrayList<ChromosomeKeyObjectiveValue> toSort= new ArrayList<>();
-        AtomicInteger index = new AtomicInteger();
-        posiblePositions.forEach(a->{
-            toSort.add(new ChromosomeKeyObjectiveValue(index.get(),a.getValue()));
-            index.getAndIncrement();
-        });
         ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts = helperService.nonDominanceSort(toSort);
-        fronts.get(0).forEach(f -> {
-            bestPositions.add(posiblePositions.get(f.getChromosomeKey()));
-        });
-        Collections.shuffle(bestPositions);
-        int pickupIndex = bestPositions.get(0).getPickUpIndex();
-        int deliveryIndex = bestPositions.get(0).getDeliveryIndex();
-        route.add(pickupIndex, pickup);
-        route.add(deliveryIndex, delivery);
+        ArrayList<ChromosomeKeyObjectiveValue> bestPositions = fronts.get(0);
+        int choosen = bestPositions.get(ThreadLocalRandom.current().nextInt(bestPositions.size())).getChromosomeKey();
+        route.add(profile.getCandidatePickUpIndex(choosen), Route.pickUp(assignedTransportsIndex));
+        route.add(profile.getCandidateDeliveryIndex(choosen), Route.delivery(assignedTransportsIndex));
     }
 
-    private ArrayList<Integer> assignRandomTransportsToThisVehicle(ArrayList<Integer> transportsIndicesList, int vehicleCap) {
-        ArrayList<Integer> assignedIndicesList = new ArrayList<>();
-        transportsIndicesList.forEach(index -> {
-            if (transportsArray[index].getAmount() <= vehicleCap) {
-                assignedIndicesList.add(index); // assign-able
+    private TransportSet assignRandomTransportsToThisVehicle(TransportSet transportsIndicesList, int vehicleCap) {
+        TransportSet assignedIndicesList = new TransportSet();
+        for (int i = 0; i < transportsIndicesList.size(); i++) {
+            if (problem.getTransport(transportsIndicesList.get(i)).getAmount() <= vehicleCap) {
+                assignedIndicesList.add(transportsIndicesList.get(i)); // assign-able
             }
-        });
-        Collections.shuffle(assignedIndicesList);
-        int numTransportsToAssign = (int) (Math.random() * assignedIndicesList.size() + 1);
-        for (int i = 0; i < assignedIndicesList.size() - numTransportsToAssign; i++) {
-            assignedIndicesList.remove(0);
         }
-        assignedIndicesList.forEach(integer -> {
-            transportsIndicesList.removeIf(integer1 -> integer1 == integer);
-        });
+        assignedIndicesList.shuffle(ThreadLocalRandom.current());
+        int numTransportsToAssign = (int) (ThreadLocalRandom.current().nextDouble() * assignedIndicesList.size() + 1);
+        assignedIndicesList.truncate(numberOfTransportsToKeep(assignedIndicesList.size(), numTransportsToAssign));
+        transportsIndicesList.removeAll(assignedIndicesList);
         return assignedIndicesList;
     }
 
-    private boolean transportsRouteIsInvalid(int depot, int vehicleIndex, ArrayList<Integer> assignedTransportsIndices, ArrayList<TransportNode> route) {
-        ObjectivesPoint obj = caculateValueOfTransportsRoute(vehiclesArray[vehicleIndex].getCap(), vehiclesArray[vehicleIndex].getSpeed(), vehiclesArray[vehicleIndex].getLoadFactor(), depot, route);
-        return !obj.isValid()
-                || !checkTransportRouteHasAllAssignments(route, assignedTransportsIndices);
+    /**
+     * Number of shuffled assignable transports, which are kept for a vehicle: half of the surplus over the drawn number is given back.
+     */
+    private int numberOfTransportsToKeep(int assignableCount, int numTransportsToAssign) {
+        return assignableCount - Math.max(0, (assignableCount - numTransportsToAssign + 1) / 2);
     }
 
-    private ObjectivesPoint caculateValueOfTransportsRoute(int vehicleCap, int vehicleSpeed, int vehicleLoadFactor, int depot, ArrayList<TransportNode> route) {
-        int totalTime = 0;
-        int totalMautKm = 0;
-        int load = 0;
-        int previous = -1;
-        int actual = -1;
-        int activeTime = 0;
-        if (route.get(route.size() - 1).getTransportIndex() != -1 || route.get(0).getTransportIndex() != -1) {
-            //System.out.println("return to depot violated");
-            return new ObjectivesPoint(-1, -1);
+    /**
+     * Checks a route and its assignments. A valid route is marked as verified for the vehicle, so with
+     * {@link ValidationLevel#ASSIGNMENTS} it is not evaluated again until it is changed.
+     */
+    private boolean transportsRouteIsInvalid(int depot, int vehicleIndex, TransportSet assignedTransportsIndices, Route route) {
+        boolean verified = validationLevel == ValidationLevel.ASSIGNMENTS && route.isVerifiedFor(vehicleIndex);
+        if (!verified && !cachedValueOfTransportsRoute(vehicleIndex, depot, route).isValid()) {
+            return true;
+        }
+        if (!checkTransportRouteHasAllAssignments(route, assignedTransportsIndices)) {
+            return true;
         }
+        route.markVerified(vehicleIndex);
+        return false;
+    }
 
+    /**
+     * Evaluates a route like {@link #caculateValueOfTransportsRoute}, the result is taken from the route evaluation cache if
+     * the same route was evaluated before for a vehicle with the same profile.
+     */
+    private ObjectivesPoint cachedValueOfTransportsRoute(int vehicleIndex, int depot, Route route) {
+        RouteEvaluationCache cache = routeEvaluationCache;
+        if (!cache.isEnabled()) {
+            return caculateValueOfTransportsRoute(vehicleIndex, depot, route);
+        }
+        int cap = problem.getVehicle(vehicleIndex).getCap();
+        int speedClass = problem.getSpeedClass(vehicleIndex);
+        int loadFactorClass = problem.getLoadFactorClass(vehicleIndex);
+        ObjectivesPoint value = cache.get(cap, speedClass, loadFactorClass, depot, route);
+        if (value == null) {
+            value = caculateValueOfTransportsRoute(vehicleIndex, depot, route);
+            cache.put(cap, speedClass, loadFactorClass, depot, route, value);
+        }
+        return value;
+    }
 
-        for (int i = 1; i < route.size(); i++) {
-            TransportNode node = route.get(i);
-            if (i != route.size() - 1) {
-                if (node.isPickUp()) {
-                    boolean found = false;
-                    for (int j = i + 1; j < route.size(); j++) {
-                        if (route.get(j).getTransportIndex() == node.getTransportIndex() && !route.get(j).isPickUp()) {
-                            found = true;
-                            break;
-                        }
-                    }
-                    if (!found) {
-                        return new ObjectivesPoint(-1, -1);
-                    }
-                } else {
-                    boolean found = false;
-                    for (int j = i - 1; j > 0; j--) {
-                        if (route.get(j).getTransportIndex() == node.getTransportIndex() && route.get(j).isPickUp()) {
-                            found = true;
-                            break;
-                        }
-                    }
-                    if (!found) {
-                        return new ObjectivesPoint(-1, -1);
-                    }
+    /**
+     * Evaluates a route in a single pass. Precedence is checked with a per-thread position table, which stores for every
+     * transport whether its pickup is visited and not yet delivered in the current evaluation. Time, maut km and load are
+     * computed in the same loop and the route is rejected as soon as it becomes infeasible.
+     *
+     * @param vehicleIndex index of vehicle in vehicle array, which is used by this route
+     * @param depot        depot of the vehicle
+     * @param route        the route
+     * @return (total maut km, total time) of the route, or (-1, -1) if the route is invalid
+     */
+    private ObjectivesPoint caculateValueOfTransportsRoute(int vehicleIndex, int depot, Route route) {
+        int vehicleCap = problem.getVehicle(vehicleIndex).getCap();
+        int speedClass = problem.getSpeedClass(vehicleIndex);
+        int loadFactorClass = problem.getLoadFactorClass(vehicleIndex);
+        int size = route.size();
+        if (route.get(size - 1) != Route.DEPOT || route.get(0) != Route.DEPOT) {
+            //System.out.println("return to depot violated");
+            return new ObjectivesPoint(-1, -1);
+        }
+        int[] visitMarks = getVisitMarks();
+        int stamp = nextVisitStamp(visitMarks);
+        int openPickUps = 0;
+        int totalTime = 0;
+        int totalMautKm = 0;
+        int load = 0;
+        int previous = depot;
+        for (int i = 1; i < size - 1; i++) {
+            int node = route.get(i);
+            int transportIndex = Route.transportIndexOf(node);
+            Transport transport = problem.getTransport(transportIndex);
+            int actual;
+            int activeTime;
+            if (Route.isPickUpNode(node)) {
+                if (visitMarks[transportIndex] == stamp) {
+                    return new ObjectivesPoint(-1, -1);
                 }
-            }
-            previous = getPrevious(route, depot, i);
-            actual = getActual(route, depot, i, node);
-            activeTime = getActiveTime(route, i, node);
-            if (i != route.size() - 1) {
-                load = getLoad(load, node);
-                if (load > vehicleCap) {
-                    //System.out.println(oldLoad);
-                    //System.out.println(node);
-                    //System.out.println(route.get(i+1));
-                    //System.out.println("load violation"+load+" cap "+vehicleCap +"at"+i+" node"+node);
+                visitMarks[transportIndex] = stamp;
+                openPickUps++;
+                load = load + transport.getAmount();
+                actual = transport.getFrom();
+                activeTime = transport.getActiveTimeOfPickup();
+            } else {
+                if (visitMarks[transportIndex] != stamp) {
                     return new ObjectivesPoint(-1, -1);
                 }
+                visitMarks[transportIndex] = -stamp;
+                openPickUps--;
+                load = load - transport.getAmount();
+                actual = transport.getTo();
+                activeTime = transport.getActiveTimeOfDelivery();
             }
-            int rideTime = distanceMatrix[previous][actual] / vehicleSpeed;
-            int time = Math.max(totalTime + rideTime, activeTime);
-            int serviceTime = 0;
-            if (i != route.size() - 1) {
-                serviceTime = transportsArray[node.getTransportIndex()].getAmount() / vehicleLoadFactor;
+            if (load > vehicleCap) {
+                return new ObjectivesPoint(-1, -1);
             }
-            totalTime = time + serviceTime;
-            totalMautKm = totalMautKm + mautKmMatrix[previous][actual];
+            int time = Math.max(totalTime + problem.getRideTime(speedClass, previous, actual), activeTime);
+            totalTime = time + problem.getServiceTime(loadFactorClass, transportIndex);
+            totalMautKm = totalMautKm + problem.getMautKm(previous, actual);
+            previous = actual;
         }
-
+        if (openPickUps != 0) {
+            return new ObjectivesPoint(-1, -1);
+        }
+        totalTime = totalTime + problem.getRideTime(speedClass, previous, depot);
+        totalMautKm = totalMautKm + problem.getMautKm(previous, depot);
         return new ObjectivesPoint(totalMautKm, totalTime);
     }
 
-    private boolean checkTransportRouteHasAllAssignments(ArrayList<TransportNode> route, ArrayList<Integer> transportsIndices) {
-        ArrayList<Integer> toTest = new ArrayList<>(transportsIndices);
-        ArrayList<Integer> toTest2 = new ArrayList<>(transportsIndices);
+    /**
+     * Returns the position table of the calling thread, one slot per transport plus one slot for the last used stamp.
+     */
+    private int[] getVisitMarks() {
+        int[] visitMarks = visitMarksOfThread.get();
+        if (visitMarks.length != problem.getTransportsCount() + 1) {
+            visitMarks = new int[problem.getTransportsCount() + 1];
+            visitMarksOfThread.set(visitMarks);
+        }
+        return visitMarks;
+    }
+
+    /**
+     * Returns a new positive stamp for the given position table, so that the table does not need to be cleared between evaluations.
+     */
+    private int nextVisitStamp(int[] visitMarks) {
+        int last = visitMarks.length - 1;
+        if (visitMarks[last] == Integer.MAX_VALUE) {
+            Arrays.fill(visitMarks, 0);
+        }
+        visitMarks[last] = visitMarks[last] + 1;
+        return visitMarks[last];
+    }
+
+    /**
+     * Checks that the pickups of a route are exactly the given transports, using the position table of the calling thread.
+     */
+    private boolean checkTransportRouteHasAllAssignments(Route route, TransportSet transportsIndices) {
+        int[] visitMarks = getVisitMarks();
+        int stamp = nextVisitStamp(visitMarks);
+        for (int i = 0; i < transportsIndices.size(); i++) {
+            visitMarks[transportsIndices.get(i)] = stamp;
+        }
+        int visitedPickUps = 0;
         for (int i = 1; i < route.size() - 1; i++) {
-            if (route.get(i).isPickUp()) {
-                if (toTest.contains(route.get(i).getTransportIndex())) {
-                    toTest.remove(Integer.valueOf(route.get(i).getTransportIndex()));
-                } else {
+            if (route.isPickUp(i)) {
+                int transportIndex = route.getTransportIndex(i);
+                if (visitMarks[transportIndex] != stamp) {
                     System.out.println("wrong");
                     return false;
                 }
+                visitMarks[transportIndex] = -stamp;
+                visitedPickUps++;
             }
         }
-        return toTest.size() == 0;
+        return visitedPickUps == transportsIndices.size();
     }
 
-    public void checkChromosomeIsValid(Chromosome chromosome) {
-        ArrayList<Integer> transports = new ArrayList<>();
-        HashSet<Integer> vehicles = new HashSet<>();
+    /**
+     * This method checks every constraint of a chromosome and returns the first violation instead of throwing an exception,
+     * so an operator can reject an infeasible result cheaply.
+     *
+     * @param chromosome the chromosome
+     * @return {@link Feasibility#FEASIBLE} or the violated constraint
+     */
+    public Feasibility checkChromosomeFeasibility(Chromosome chromosome) {
+        BitSet assignedTransports = new BitSet(problem.getTransportsCount());
+        BitSet usedVehicles = new BitSet(problem.getVehiclesCount());
         Gene[] genes = chromosome.getGenesList();
         for (int i = 0; i < genes.length; i++) {
-            ArrayList<Integer> tr = genes[i].getTransportsIndicesList();
-            transports.addAll(tr);
-            Vehicle vehicle = vehiclesArray[genes[i].getVehicleIndex()];
-
-            if (transportsRouteIsInvalid(vehicle.getDepot(), vehicle.getCode(), genes[i].getTransportsIndicesList(), genes[i].getRoute())) {
-                throw new RuntimeException("ROUTE INVALID");
-            }
+            TransportSet tr = genes[i].getTransportsIndicesList();
+            int vehicleIndex = genes[i].getVehicleIndex();
+            Vehicle vehicle = problem.getVehicle(vehicleIndex);
 
-            if (vehicles.contains(genes[i].getVehicleIndex())) {
-                throw new RuntimeException("there are vehicle which is used more than 1 time");// 1 vehicle 2 times
+            if (usedVehicles.get(vehicleIndex)) {
+                return Feasibility.violated(ConstraintViolation.VEHICLE_USED_TWICE, vehicleIndex);
             }
-            vehicles.add(genes[i].getVehicleIndex());
+            usedVehicles.set(vehicleIndex);
             for (int j = 0; j < tr.size(); j++) {
-                if (transportsArray[tr.get(j)].getAmount() > vehiclesArray[genes[i].getVehicleIndex()].getCap()) {
-                    throw new RuntimeException("there are transport assigned to wrong vehicle");// assigned transport bigger load than cap
+                int transportIndex = tr.get(j);
+                if (problem.getTransport(transportIndex).getAmount() > vehicle.getCap()) {
+                    return Feasibility.violated(ConstraintViolation.TRANSPORT_EXCEEDS_CAPACITY, transportIndex);
                 }
-            }
-        }
-        for (int i = 0; i < transportsArray.length; i++) {
-            int count = 0;
-            for (int j = 0; j < transports.size(); j++) {
-                if (transports.get(j) == i) {
-                    count++;
+                if (assignedTransports.get(transportIndex)) {
+                    return Feasibility.violated(ConstraintViolation.TRANSPORT_ASSIGNED_TWICE, transportIndex);
                 }
+                assignedTransports.set(transportIndex);
             }
-            if (count < 1) {
-                throw new RuntimeException("there are unassigned transports" + transports + " " + transports.size() + " " + i);
-            }
-            if (count > 1) {
-                throw new RuntimeException("there are transport that assigned more than 1 time");
+            if (transportsRouteIsInvalid(vehicle.getDepot(), vehicleIndex, tr, genes[i].getRoute())) {
+                return Feasibility.violated(ConstraintViolation.ROUTE_INVALID, vehicleIndex);
             }
         }
+        int unassignedTransport = assignedTransports.nextClearBit(0);
+        if (unassignedTransport < problem.getTransportsCount()) {
+            return Feasibility.violated(ConstraintViolation.TRANSPORT_UNASSIGNED, unassignedTransport);
+        }
+        return Feasibility.FEASIBLE;
     }
 
-    public int caculateTotalTimeOfThisRoute(int vehicleIndex, ArrayList<TransportNode> route) {
+    /**
+     * This method throws an exception if a chromosome is infeasible, see {@link #checkChromosomeFeasibility}.
+     */
+    public void checkChromosomeIsValid(Chromosome chromosome) {
+        Feasibility feasibility = checkChromosomeFeasibility(chromosome);
+        if (!feasibility.isFeasible()) {
+            throw new RuntimeException("chromosome is invalid: " + feasibility);
+        }
+    }
+
+    public int caculateTotalTimeOfThisRoute(int vehicleIndex, Route route) {
         int totalTime = 0;
-        int previous = -1;
-        int actual = -1;
-        int activeTime = 0;
-        Vehicle vehicle = vehiclesArray[vehicleIndex];
-        int vehicleSpeed = vehicle.getSpeed();
-        int vehicleLoadFactor = vehicle.getLoadFactor();
+        Vehicle vehicle = problem.getVehicle(vehicleIndex);
+        int speedClass = problem.getSpeedClass(vehicleIndex);
+        int loadFactorClass = problem.getLoadFactorClass(vehicleIndex);
         int depot = vehicle.getDepot();
-        for (int i = 1; i < route.size(); i++) {
-            TransportNode node = route.get(i);
-            previous = getPrevious(route, depot, i);
-            actual = getActual(route, depot, i, node);
-            activeTime = getActiveTime(route, i, node);
-            int rideTime = distanceMatrix[previous][actual] / vehicleSpeed;
-            int time = Math.max(totalTime + rideTime, activeTime);
-            int serviceTime = 0;
-            if (i != route.size() - 1) {
-                serviceTime = transportsArray[node.getTransportIndex()].getAmount() / vehicleLoadFactor;
-            }
-            totalTime = time + serviceTime;
+        int previous = depot;
+        for (int i = 1; i < route.size() - 1; i++) {
+            int node = route.get(i);
+            int actual = getLocation(node);
+            int time = Math.max(totalTime + problem.getRideTime(speedClass, previous, actual), getActiveTime(node));
+            totalTime = time + problem.getServiceTime(loadFactorClass, Route.transportIndexOf(node));
+            previous = actual;
         }
-        return totalTime;
+        return totalTime + problem.getRideTime(speedClass, previous, depot);
 
     }
 
-    public int caculateTotalMautKmOfThisRoute(int vehicleIndex, ArrayList<TransportNode> route) {
+    public int caculateTotalMautKmOfThisRoute(int vehicleIndex, Route route) {
         int totalMautKm = 0;
-        int previous = -1;
-        int actual = -1;
-        Vehicle vehicle = vehiclesArray[vehicleIndex];
+        Vehicle vehicle = problem.getVehicle(vehicleIndex);
         int depot = vehicle.getDepot();
-        for (int i = 1; i < route.size(); i++) {
-            TransportNode node = route.get(i);
-            previous = getPrevious(route, depot, i);
-            actual = getActual(route, depot, i, node);
-            totalMautKm = totalMautKm + mautKmMatrix[previous][actual];
+        int previous = depot;
+        for (int i = 1; i < route.size() - 1; i++) {
+            int actual = getLocation(route.get(i));
+            totalMautKm = totalMautKm + problem.getMautKm(previous, actual);
+            previous = actual;
         }
-        return totalMautKm;
+        return totalMautKm + problem.getMautKm(previous, depot);
     }
 
-    private int getLoad(int load, TransportNode node) {
-        if (node.isPickUp()) {
-            load = load + transportsArray[node.getTransportIndex()].getAmount();
-        } else {
-            load = load - transportsArray[node.getTransportIndex()].getAmount();
+    private int getLocation(int node) {
+        Transport transport = problem.getTransport(Route.transportIndexOf(node));
+        if (Route.isPickUpNode(node)) {
+            return transport.getFrom();
         }
-        return load;
+        return transport.getTo();
     }
 
-    private int getActiveTime(ArrayList<TransportNode> route, int i, TransportNode node) {
-        int activeTime;
-        if (i != route.size() - 1) {
-            if (node.isPickUp()) {
-                activeTime = transportsArray[node.getTransportIndex()].getActiveTimeOfPickup();
-            } else {
-                activeTime = transportsArray[node.getTransportIndex()].getActiveTimeOfDelivery();
-            }
-        } else {
-            activeTime = 0;
+    private int getActiveTime(int node) {
+        Transport transport = problem.getTransport(Route.transportIndexOf(node));
+        if (Route.isPickUpNode(node)) {
+            return transport.getActiveTimeOfPickup();
         }
-        return activeTime;
+        return transport.getActiveTimeOfDelivery();
     }
 
     private int maxVehicleCap(ArrayList<Integer> vehiclesIndicesList) {
         AtomicInteger max = new AtomicInteger();
         vehiclesIndicesList.forEach(i -> {
-            if (vehiclesArray[i].getCap() > max.get()) {
-                max.set(vehiclesArray[i].getCap());
+            if (problem.getVehicle(i).getCap() > max.get()) {
+                max.set(problem.getVehicle(i).getCap());
             }
         });
         return max.get();
     }
 
-    private int getActual(ArrayList<TransportNode> route, int depot, int i, TransportNode node) {
-        int actual;
-        if (i != route.size() - 1) {
-            if (node.isPickUp()) {
-                actual = transportsArray[node.getTransportIndex()].getFrom();
-            } else {
-                actual = transportsArray[node.getTransportIndex()].getTo();
-            }
-        } else {
-            actual = depot;
-        }
-        return actual;
-    }
-
-    private int getPrevious(ArrayList<TransportNode> route, int depot, int i) {
-        int previous;
-        if (i != 1) {
-            if (route.get(i - 1).isPickUp()) {
-                previous = transportsArray[route.get(i - 1).getTransportIndex()].getFrom();
-            } else {
-                previous = transportsArray[route.get(i - 1).getTransportIndex()].getTo();
-            }
-        } else {
-            previous = depot;
-        }
-        return previous;
-    }
-
 }
@@ -0,0 +1,28 @@
+package GeneticAlgo;
+
+import java.util.ArrayList;
+
+/**
+ * Population of one island of the island model. An island is evolved by only one thread at a time, the migration
+ * happens between the epochs, while no island is evolved.
+ */
+class Island {
+    private final ArrayList<Chromosome> population;
+    private final int populationSize;
+
+    Island(ArrayList<Chromosome> population, int populationSize) {
+        this.population = population;
+        this.populationSize = populationSize;
+    }
+
+    /**
+     * @return the population, after an epoch it only holds the survivors of the last survival selection
+     */
+    ArrayList<Chromosome> getPopulation() {
+        return population;
+    }
+
+    int getPopulationSize() {
+        return populationSize;
+    }
+}
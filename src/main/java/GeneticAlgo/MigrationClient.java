@@ -0,0 +1,78 @@
+package GeneticAlgo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connection of an island process to its {@link MigrationCoordinator}.
+ */
+class MigrationClient implements Closeable {
+    private final SocketChannel channel;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+    private final GeneticService geneticService;
+    private final int islandIndex;
+
+    MigrationClient(String address, GeneticService geneticService) throws IOException {
+        this.channel = MigrationCoordinator.connect(address);
+        this.input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        this.output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        this.geneticService = geneticService;
+        if (input.readInt() != MigrationCoordinator.MAGIC) {
+            channel.close();
+            throw new RuntimeException(address + " is not a migration coordinator");
+        }
+        this.islandIndex = input.readInt();
+        input.readInt();
+    }
+
+    int getIslandIndex() {
+        return islandIndex;
+    }
+
+    /**
+     * Method to send emigrants and to wait for the immigrants of this round.
+     *
+     * @param emigrants chromosomes, which are sent to other islands
+     * @return the immigrants, which fit the problem of this island and are feasible. Other immigrants are dropped.
+     */
+    ArrayList<Chromosome> exchange(List<Chromosome> emigrants) throws IOException {
+        send(MigrationCoordinator.MIGRANTS, emigrants);
+        ArrayList<Chromosome> immigrants = new ArrayList<>();
+        int payloadsCount = input.readInt();
+        for (int i = 0; i < payloadsCount; i++) {
+            byte[] payload = new byte[input.readInt()];
+            input.readFully(payload);
+            immigrants.addAll(ChromosomeCodec.decode(payload, geneticService));
+        }
+        return immigrants;
+    }
+
+    /**
+     * Method to send the first front at the end of the run.
+     */
+    void sendFinal(List<Chromosome> firstFront) throws IOException {
+        send(MigrationCoordinator.FINAL, firstFront);
+    }
+
+    private void send(byte type, List<Chromosome> chromosomes) throws IOException {
+        byte[] payload = ChromosomeCodec.encode(chromosomes);
+        output.writeByte(type);
+        output.writeInt(payload.length);
+        output.write(payload);
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
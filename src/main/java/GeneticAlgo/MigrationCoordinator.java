@@ -0,0 +1,208 @@
+package GeneticAlgo;
+
+import Model.ChromosomeKeyObjectiveValue;
+import Model.MigrationTopology;
+import Model.Solution;
+import Service.HelperService;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Coordinator of islands, which run as separate solver processes. The islands connect over TCP or a Unix domain socket,
+ * see {@link #parseAddress}, and send their emigrants every migrationInterval generations. The coordinator waits for the
+ * message of every active island, then sends every island the emigrants of its ring predecessor or of a random other
+ * island. An island sends its first front at the end of its run, the coordinator merges the fronts of all islands into
+ * the global Pareto set.
+ * <p>
+ * Messages of an island: a byte type ({@link #MIGRANTS} or {@link #FINAL}), the length and the chromosomes encoded by
+ * {@link ChromosomeCodec}. After the connection the coordinator sends the magic, the island index and the island count,
+ * and it answers each {@link #MIGRANTS} message with the count of payloads, each as length and encoded chromosomes.
+ */
+public class MigrationCoordinator {
+    static final int MAGIC = 0x4d494752;
+    static final byte MIGRANTS = 1;
+    static final byte FINAL = 2;
+
+    private final HelperService helperService = new HelperService();
+    private final String address;
+    private final int islandCount;
+    private final MigrationTopology topology;
+
+    /**
+     * @param address     "unix:" followed by a socket file path, or host:port
+     * @param islandCount number of island processes, which must connect before the migration starts
+     * @param topology    the migration topology
+     */
+    public MigrationCoordinator(String address, int islandCount, MigrationTopology topology) {
+        this.address = address;
+        this.islandCount = islandCount;
+        this.topology = topology;
+    }
+
+    /**
+     * Method to accept the islands and to route their migrants until every island has finished.
+     *
+     * @return the global Pareto set
+     */
+    public ArrayList<Solution> run() throws IOException {
+        SocketAddress socketAddress = parseAddress(address);
+        ArrayList<SocketChannel> channels = new ArrayList<>();
+        try (ServerSocketChannel server = openServer(socketAddress)) {
+            ArrayList<DataInputStream> inputs = new ArrayList<>();
+            ArrayList<DataOutputStream> outputs = new ArrayList<>();
+            for (int i = 0; i < islandCount; i++) {
+                SocketChannel channel = server.accept();
+                channels.add(channel);
+                inputs.add(new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel))));
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                output.writeInt(MAGIC);
+                output.writeInt(i);
+                output.writeInt(islandCount);
+                output.flush();
+                outputs.add(output);
+                System.out.println("island " + i + " connected");
+            }
+
+            boolean[] active = new boolean[islandCount];
+            Arrays.fill(active, true);
+            int activeCount = islandCount;
+            ArrayList<Solution> finalSolutions = new ArrayList<>();
+            while (activeCount > 0) {
+                byte[][] emigrants = new byte[islandCount][];
+                for (int i = 0; i < islandCount; i++) {
+                    if (!active[i]) {
+                        continue;
+                    }
+                    DataInputStream input = inputs.get(i);
+                    byte type = input.readByte();
+                    byte[] payload = new byte[input.readInt()];
+                    input.readFully(payload);
+                    if (type == MIGRANTS) {
+                        emigrants[i] = payload;
+                    } else if (type == FINAL) {
+                        finalSolutions.addAll(ChromosomeCodec.decodeSolutions(payload));
+                        active[i] = false;
+                        activeCount--;
+                        System.out.println("island " + i + " finished");
+                    } else {
+                        throw new RuntimeException("unknown message type " + type + " of island " + i);
+                    }
+                }
+                ArrayList<ArrayList<byte[]>> immigrants = new ArrayList<>();
+                for (int i = 0; i < islandCount; i++) {
+                    immigrants.add(new ArrayList<>());
+                }
+                for (int i = 0; i < islandCount; i++) {
+                    if (emigrants[i] != null) {
+                        int target = targetOf(i, emigrants);
+                        if (target != -1) {
+                            immigrants.get(target).add(emigrants[i]);
+                        }
+                    }
+                }
+                for (int i = 0; i < islandCount; i++) {
+                    if (emigrants[i] != null) {
+                        DataOutputStream output = outputs.get(i);
+                        output.writeInt(immigrants.get(i).size());
+                        for (byte[] payload : immigrants.get(i)) {
+                            output.writeInt(payload.length);
+                            output.write(payload);
+                        }
+                        output.flush();
+                    }
+                }
+            }
+            return mergeFronts(finalSolutions);
+        } finally {
+            for (SocketChannel channel : channels) {
+                channel.close();
+            }
+            if (socketAddress instanceof UnixDomainSocketAddress) {
+                Files.deleteIfExists(((UnixDomainSocketAddress) socketAddress).getPath());
+            }
+        }
+    }
+
+    /**
+     * @return the island, which receives the emigrants of the island, among the islands, which sent emigrants in this
+     * round, -1 if there is no other such island
+     */
+    private int targetOf(int island, byte[][] emigrants) {
+        ArrayList<Integer> candidates = new ArrayList<>();
+        for (int i = 1; i < islandCount; i++) {
+            int candidate = (island + i) % islandCount;
+            if (emigrants[candidate] != null) {
+                candidates.add(candidate);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return -1;
+        }
+        if (topology == MigrationTopology.RANDOM) {
+            return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+        }
+        return candidates.get(0);
+    }
+
+    private ArrayList<Solution> mergeFronts(ArrayList<Solution> solutions) {
+        ArrayList<ChromosomeKeyObjectiveValue> chromosomeKeyObjectiveValues = new ArrayList<>();
+        for (int i = 0; i < solutions.size(); i++) {
+            chromosomeKeyObjectiveValues.add(new ChromosomeKeyObjectiveValue(i, solutions.get(i).getObjectivesPoint()));
+        }
+        ArrayList<Solution> paretoSet = new ArrayList<>();
+        if (!solutions.isEmpty()) {
+            for (ChromosomeKeyObjectiveValue individual : helperService.nonDominanceSort(chromosomeKeyObjectiveValues).get(0)) {
+                paretoSet.add(solutions.get(individual.getChromosomeKey()));
+            }
+        }
+        return paretoSet;
+    }
+
+    private static ServerSocketChannel openServer(SocketAddress socketAddress) throws IOException {
+        if (socketAddress instanceof UnixDomainSocketAddress) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) socketAddress).getPath());
+            return ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(socketAddress);
+        }
+        return ServerSocketChannel.open().bind(socketAddress);
+    }
+
+    static SocketChannel connect(String address) throws IOException {
+        SocketAddress socketAddress = parseAddress(address);
+        if (socketAddress instanceof UnixDomainSocketAddress) {
+            return SocketChannel.open(socketAddress);
+        }
+        SocketChannel channel = SocketChannel.open(socketAddress);
+        channel.socket().setTcpNoDelay(true);
+        return channel;
+    }
+
+    /**
+     * Method to parse an address: "unix:" followed by a path is a Unix domain socket, otherwise host:port is a TCP socket.
+     */
+    static SocketAddress parseAddress(String address) {
+        if (address.startsWith("unix:")) {
+            return UnixDomainSocketAddress.of(Path.of(address.substring("unix:".length())));
+        }
+        int colon = address.lastIndexOf(':');
+        if (colon == -1) {
+            throw new RuntimeException("invalid address " + address + ", expected host:port or unix:path");
+        }
+        return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+    }
+}
@@ -0,0 +1,192 @@
+package GeneticAlgo;
+
+import Model.IntMatrix;
+import Model.MappedIntMatrix;
+import Model.Transport;
+import Model.Vehicle;
+
+import java.util.Arrays;
+
+/**
+ * Read-only view of the problem data. All fields are final and the arrays are never written after construction,
+ * so one instance can be shared by all threads which generate and mutate chromosomes.
+ * <p>
+ * Vehicles with the same speed form a speed class, vehicles with the same load factor share one precomputed service time
+ * table (a load factor class). For a distance matrix on the heap every speed class gets a precomputed ride time matrix.
+ * A {@link MappedIntMatrix} is not copied to the heap, its ride times are divided by the speed at each lookup.
+ * Distances, maut km and ride times are {@link IntMatrix} instances, so they are flat and as compact as their values allow.
+ * <p>
+ * Vehicles with the same depot, capacity, speed, load factor and fix cost are interchangeable and form a vehicle class.
+ * Work, which only depends on these values, is done once per class instead of once per vehicle. The classes are numbered
+ * in the order of their first vehicle, the vehicles of a class are in ascending order.
+ */
+final class ProblemContext {
+    private final IntMatrix distanceMatrix;
+    private final IntMatrix mautKmMatrix;
+    private final Vehicle[] vehiclesArray;
+    private final Transport[] transportsArray;
+    private final int[] speedClassOfVehicle;
+    private final int[] loadFactorClassOfVehicle;
+    private final IntMatrix[] rideTimesOfSpeedClass;
+    private final int[] speedOfSpeedClass;
+    private final int[][] serviceTimesOfLoadFactorClass;
+    private final int[] vehicleClassOfVehicle;
+    private final int[][] vehiclesOfVehicleClass;
+
+    public ProblemContext(IntMatrix distanceMatrix, IntMatrix mautKmMatrix, Vehicle[] vehiclesArray, Transport[] transportsArray) {
+        if (distanceMatrix.size() != mautKmMatrix.size()) {
+            throw new RuntimeException("distance matrix has " + distanceMatrix.size() + " locations, maut km matrix has " + mautKmMatrix.size());
+        }
+        this.distanceMatrix = distanceMatrix;
+        this.mautKmMatrix = mautKmMatrix;
+        this.vehiclesArray = vehiclesArray.clone();
+        this.transportsArray = transportsArray.clone();
+
+        int[] speeds = new int[vehiclesArray.length];
+        int[] loadFactors = new int[vehiclesArray.length];
+        this.speedClassOfVehicle = new int[vehiclesArray.length];
+        this.loadFactorClassOfVehicle = new int[vehiclesArray.length];
+        int speedClassesCount = 0;
+        int loadFactorClassesCount = 0;
+        for (int k = 0; k < vehiclesArray.length; k++) {
+            speedClassOfVehicle[k] = classOf(vehiclesArray[k].getSpeed(), speeds, speedClassesCount);
+            if (speedClassOfVehicle[k] == speedClassesCount) {
+                speeds[speedClassesCount] = vehiclesArray[k].getSpeed();
+                speedClassesCount++;
+            }
+            loadFactorClassOfVehicle[k] = classOf(vehiclesArray[k].getLoadFactor(), loadFactors, loadFactorClassesCount);
+            if (loadFactorClassOfVehicle[k] == loadFactorClassesCount) {
+                loadFactors[loadFactorClassesCount] = vehiclesArray[k].getLoadFactor();
+                loadFactorClassesCount++;
+            }
+        }
+
+        this.speedOfSpeedClass = Arrays.copyOf(speeds, speedClassesCount);
+        if (distanceMatrix instanceof MappedIntMatrix) {
+            this.rideTimesOfSpeedClass = null;
+        } else {
+            this.rideTimesOfSpeedClass = new IntMatrix[speedClassesCount];
+            for (int c = 0; c < speedClassesCount; c++) {
+                int speed = speeds[c];
+                rideTimesOfSpeedClass[c] = distanceMatrix.mapValues(distance -> distance / speed);
+            }
+        }
+        this.vehicleClassOfVehicle = new int[vehiclesArray.length];
+        int[] firstVehicleOfClass = new int[vehiclesArray.length];
+        int[] vehiclesCountOfClass = new int[vehiclesArray.length];
+        int vehicleClassesCount = 0;
+        for (int k = 0; k < vehiclesArray.length; k++) {
+            int c = 0;
+            while (c < vehicleClassesCount && !areInterchangeable(vehiclesArray[firstVehicleOfClass[c]], vehiclesArray[k])) {
+                c++;
+            }
+            if (c == vehicleClassesCount) {
+                firstVehicleOfClass[c] = k;
+                vehicleClassesCount++;
+            }
+            vehicleClassOfVehicle[k] = c;
+            vehiclesCountOfClass[c]++;
+        }
+        this.vehiclesOfVehicleClass = new int[vehicleClassesCount][];
+        for (int c = 0; c < vehicleClassesCount; c++) {
+            vehiclesOfVehicleClass[c] = new int[vehiclesCountOfClass[c]];
+            vehiclesCountOfClass[c] = 0;
+        }
+        for (int k = 0; k < vehiclesArray.length; k++) {
+            int c = vehicleClassOfVehicle[k];
+            vehiclesOfVehicleClass[c][vehiclesCountOfClass[c]] = k;
+            vehiclesCountOfClass[c]++;
+        }
+
+        this.serviceTimesOfLoadFactorClass = new int[loadFactorClassesCount][];
+        for (int c = 0; c < loadFactorClassesCount; c++) {
+            int[] serviceTimes = new int[transportsArray.length];
+            for (int t = 0; t < transportsArray.length; t++) {
+                serviceTimes[t] = transportsArray[t].getAmount() / loadFactors[c];
+            }
+            serviceTimesOfLoadFactorClass[c] = serviceTimes;
+        }
+    }
+
+    private static boolean areInterchangeable(Vehicle a, Vehicle b) {
+        return a.getDepot() == b.getDepot() && a.getCap() == b.getCap() && a.getSpeed() == b.getSpeed()
+                && a.getLoadFactor() == b.getLoadFactor() && a.getFixCost() == b.getFixCost();
+    }
+
+    private static int classOf(int value, int[] values, int classesCount) {
+        for (int c = 0; c < classesCount; c++) {
+            if (values[c] == value) {
+                return c;
+            }
+        }
+        return classesCount;
+    }
+
+    public int getDistance(int from, int to) {
+        return distanceMatrix.get(from, to);
+    }
+
+    public int getMautKm(int from, int to) {
+        return mautKmMatrix.get(from, to);
+    }
+
+    public Vehicle getVehicle(int vehicleIndex) {
+        return vehiclesArray[vehicleIndex];
+    }
+
+    public int getVehiclesCount() {
+        return vehiclesArray.length;
+    }
+
+    public Transport getTransport(int transportIndex) {
+        return transportsArray[transportIndex];
+    }
+
+    public int getTransportsCount() {
+        return transportsArray.length;
+    }
+
+    public int getSpeedClass(int vehicleIndex) {
+        return speedClassOfVehicle[vehicleIndex];
+    }
+
+    public int getLoadFactorClass(int vehicleIndex) {
+        return loadFactorClassOfVehicle[vehicleIndex];
+    }
+
+    public int getVehicleClass(int vehicleIndex) {
+        return vehicleClassOfVehicle[vehicleIndex];
+    }
+
+    public int getVehicleClassesCount() {
+        return vehiclesOfVehicleClass.length;
+    }
+
+    public int getVehiclesCountOfClass(int vehicleClass) {
+        return vehiclesOfVehicleClass[vehicleClass].length;
+    }
+
+    /**
+     * @return index of the i-th vehicle of the vehicle class in vehicle array
+     */
+    public int getVehicleOfClass(int vehicleClass, int i) {
+        return vehiclesOfVehicleClass[vehicleClass][i];
+    }
+
+    /**
+     * @return distance from one location to another divided by the speed of the speed class
+     */
+    public int getRideTime(int speedClass, int from, int to) {
+        if (rideTimesOfSpeedClass == null) {
+            return distanceMatrix.get(from, to) / speedOfSpeedClass[speedClass];
+        }
+        return rideTimesOfSpeedClass[speedClass].get(from, to);
+    }
+
+    /**
+     * @return amount of the transport divided by the load factor of the load factor class
+     */
+    public int getServiceTime(int loadFactorClass, int transportIndex) {
+        return serviceTimesOfLoadFactorClass[loadFactorClass][transportIndex];
+    }
+}
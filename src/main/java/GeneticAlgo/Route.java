@@ -0,0 +1,246 @@
+package GeneticAlgo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Route of a vehicle stored as a growable int array. A node is the transport index for a pickup and its bitwise complement
+ * (sign bit set) for a delivery. The route starts and ends with the depot node.
+ * <p>
+ * A copy shares the array with its original until one of them is changed, then the changed route copies the array
+ * (copy on write). A route must not be changed by one thread while another thread copies it.
+ */
+class Route {
+    public static final int DEPOT = Integer.MIN_VALUE;
+
+    private int[] nodes;
+    private int size;
+    private volatile boolean shared;
+    private int verifiedVehicleIndex = -1;
+    private int fingerprint;
+
+    public Route() {
+        this(8);
+    }
+
+    public Route(int capacity) {
+        this.nodes = new int[Math.max(capacity, 2)];
+        this.size = 0;
+    }
+
+    /**
+     * Creates a route, which only visits the depot.
+     *
+     * @param capacity expected number of nodes
+     * @return route with start and end depot
+     */
+    public static Route emptyRoute(int capacity) {
+        Route route = new Route(capacity);
+        route.add(DEPOT);
+        route.add(DEPOT);
+        return route;
+    }
+
+    public static int pickUp(int transportIndex) {
+        return transportIndex;
+    }
+
+    public static int delivery(int transportIndex) {
+        return ~transportIndex;
+    }
+
+    public static boolean isPickUpNode(int node) {
+        return node >= 0;
+    }
+
+    public static int transportIndexOf(int node) {
+        if (node == DEPOT) {
+            return -1;
+        }
+        return node >= 0 ? node : ~node;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int index) {
+        return nodes[index];
+    }
+
+    public boolean isPickUp(int index) {
+        return nodes[index] >= 0;
+    }
+
+    public int getTransportIndex(int index) {
+        return transportIndexOf(nodes[index]);
+    }
+
+    public int indexOf(int node) {
+        for (int i = 0; i < size; i++) {
+            if (nodes[i] == node) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void set(int index, int node) {
+        prepareWrite();
+        nodes[index] = node;
+    }
+
+    public void add(int node) {
+        prepareWrite();
+        ensureCapacity(size + 1);
+        nodes[size] = node;
+        size++;
+    }
+
+    public void add(int index, int node) {
+        prepareWrite();
+        ensureCapacity(size + 1);
+        System.arraycopy(nodes, index, nodes, index + 1, size - index);
+        nodes[index] = node;
+        size++;
+    }
+
+    /**
+     * Inserts all nodes of another route at the given index.
+     */
+    public void addAll(int index, Route other) {
+        prepareWrite();
+        ensureCapacity(size + other.size);
+        System.arraycopy(nodes, index, nodes, index + other.size, size - index);
+        System.arraycopy(other.nodes, 0, nodes, index, other.size);
+        size = size + other.size;
+    }
+
+    public int remove(int index) {
+        prepareWrite();
+        int node = nodes[index];
+        System.arraycopy(nodes, index + 1, nodes, index, size - index - 1);
+        size--;
+        return node;
+    }
+
+    /**
+     * Removes the nodes from index from (inclusive) to index to (exclusive) and returns them as a new route.
+     */
+    public Route removeRange(int from, int to) {
+        prepareWrite();
+        Route removed = new Route(to - from);
+        System.arraycopy(nodes, from, removed.nodes, 0, to - from);
+        removed.size = to - from;
+        System.arraycopy(nodes, to, nodes, from, size - to);
+        size = size - (to - from);
+        return removed;
+    }
+
+    public void swap(int i, int j) {
+        prepareWrite();
+        int node = nodes[i];
+        nodes[i] = nodes[j];
+        nodes[j] = node;
+    }
+
+    /**
+     * Shuffles the nodes between index from (inclusive) and index to (exclusive).
+     */
+    public void shuffle(int from, int to, Random random) {
+        for (int i = to - 1; i > from; i--) {
+            swap(i, from + random.nextInt(i - from + 1));
+        }
+    }
+
+    /**
+     * Creates a copy in O(1), which shares the nodes with this route until one of both is changed.
+     */
+    public Route copy() {
+        shared = true;
+        Route copy = new Route(nodes, size);
+        copy.shared = true;
+        copy.verifiedVehicleIndex = verifiedVehicleIndex;
+        copy.fingerprint = fingerprint;
+        return copy;
+    }
+
+    private Route(int[] nodes, int size) {
+        this.nodes = nodes;
+        this.size = size;
+    }
+
+    /**
+     * Marks this route as feasible for the vehicle, until the route is changed.
+     */
+    public void markVerified(int vehicleIndex) {
+        verifiedVehicleIndex = vehicleIndex;
+    }
+
+    /**
+     * @return true if the route is verified for the vehicle and unchanged since
+     */
+    public boolean isVerifiedFor(int vehicleIndex) {
+        return verifiedVehicleIndex == vehicleIndex;
+    }
+
+    /**
+     * Hash of the nodes, which is computed once until the route is changed.
+     */
+    public int fingerprint() {
+        int hash = fingerprint;
+        if (hash == 0) {
+            hash = 1;
+            for (int i = 0; i < size; i++) {
+                hash = 31 * hash + nodes[i];
+            }
+            hash = hash == 0 ? 1 : hash;
+            fingerprint = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * @return true if both routes visit the same nodes in the same order
+     */
+    public boolean hasSameNodes(Route other) {
+        return size == other.size && Arrays.equals(nodes, 0, size, other.nodes, 0, size);
+    }
+
+    /**
+     * Copies the shared nodes before the first change of this route and drops its verification and fingerprint.
+     */
+    private void prepareWrite() {
+        verifiedVehicleIndex = -1;
+        fingerprint = 0;
+        if (shared) {
+            nodes = Arrays.copyOf(nodes, nodes.length);
+            shared = false;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(capacity, nodes.length * 2));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i != 0) {
+                builder.append(", ");
+            }
+            int node = nodes[i];
+            if (node == DEPOT) {
+                builder.append("depot");
+            } else if (isPickUpNode(node)) {
+                builder.append("pickup ").append(node);
+            } else {
+                builder.append("delivery ").append(~node);
+            }
+        }
+        return builder.append("]").toString();
+    }
+}
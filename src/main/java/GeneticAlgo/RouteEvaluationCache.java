@@ -0,0 +1,180 @@
+package GeneticAlgo;
+
+import Model.ObjectivesPoint;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of route evaluations, shared by all threads. The key is the vehicle profile, which determines the result
+ * of an evaluation (capacity, speed class, load factor class and depot), and the nodes of the route. The cache is split
+ * into segments, each segment is a map in access order guarded by its own lock, which evicts its least recently used entry.
+ * <p>
+ * A stored key holds a copy on write snapshot of the route, so storing a route does not copy its nodes.
+ */
+class RouteEvaluationCache {
+    private static final int SEGMENTS_COUNT = 16;
+
+    private final int capacity;
+    private final Segment[] segments;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param capacity maximal number of cached evaluations, 0 to disable the cache
+     */
+    RouteEvaluationCache(int capacity) {
+        this.capacity = capacity;
+        if (capacity > 0) {
+            // a small cache has fewer segments, the remainder of the capacity goes to the first segments
+            segments = new Segment[Math.min(SEGMENTS_COUNT, capacity)];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = new Segment(capacity / segments.length + (i < capacity % segments.length ? 1 : 0));
+            }
+        }
+        else {
+            segments = null;
+        }
+    }
+
+    boolean isEnabled() {
+        return segments != null;
+    }
+
+    /**
+     * @return (total maut km, total time) of the route, or null if the evaluation is not cached
+     */
+    ObjectivesPoint get(int cap, int speedClass, int loadFactorClass, int depot, Route route) {
+        Key key = new Key(cap, speedClass, loadFactorClass, depot, route);
+        Segment segment = segmentOf(key);
+        long[] value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new ObjectivesPoint(value[0], value[1]);
+    }
+
+    void put(int cap, int speedClass, int loadFactorClass, int depot, Route route, ObjectivesPoint value) {
+        Key key = new Key(cap, speedClass, loadFactorClass, depot, route.copy());
+        Segment segment = segmentOf(key);
+        synchronized (segment) {
+            segment.put(key, new long[]{(long) value.getX(), (long) value.getY()});
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of cached evaluations
+     */
+    public int size() {
+        if (segments == null) {
+            return 0;
+        }
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size = size + segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentOf(Key key) {
+        int hash = key.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    @Override
+    public String toString() {
+        long lookups = getHits() + getMisses();
+        return "route evaluation cache: " + getHits() + " hits, " + getMisses() + " misses"
+                + (lookups == 0 ? "" : String.format(" (%.1f%% hits)", 100.0 * getHits() / lookups));
+    }
+
+    /**
+     * Part of the cache, a map in access order, which removes its least recently used entry when it is full.
+     */
+    private static class Segment {
+        private final int capacity;
+        private final LinkedHashMap<Key, long[]> entries;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        long[] get(Key key) {
+            return entries.get(key);
+        }
+
+        void put(Key key, long[] value) {
+            entries.put(key, value);
+            if (entries.size() > capacity) {
+                Iterator<Key> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+
+        int size() {
+            return entries.size();
+        }
+    }
+
+    private static class Key {
+        private final int cap;
+        private final int speedClass;
+        private final int loadFactorClass;
+        private final int depot;
+        private final Route route;
+        private final int hash;
+
+        Key(int cap, int speedClass, int loadFactorClass, int depot, Route route) {
+            this.cap = cap;
+            this.speedClass = speedClass;
+            this.loadFactorClass = loadFactorClass;
+            this.depot = depot;
+            this.route = route;
+            int h = route.fingerprint();
+            h = 31 * h + cap;
+            h = 31 * h + speedClass;
+            h = 31 * h + loadFactorClass;
+            this.hash = 31 * h + depot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && cap == other.cap && speedClass == other.speedClass
+                    && loadFactorClass == other.loadFactorClass && depot == other.depot && route.hasSameNodes(other.route);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
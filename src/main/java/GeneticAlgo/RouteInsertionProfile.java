@@ -0,0 +1,204 @@
+package GeneticAlgo;
+
+import Model.Transport;
+
+import java.util.Arrays;
+
+/**
+ * Prefix and suffix data of a route, which allow to price the insertion of a pickup/delivery pair in constant time.
+ * <p>
+ * For every node k of the route the profile stores the departure time, the load and the maut km reached after the node.
+ * The part of the route from node k to the end depot is stored as a function finish(a) = max(a + suffixDuration[k], suffixEarliestFinish[k])
+ * of the arrival time a at node k. Waiting for an active time keeps this form, so the function can be built backwards in one pass
+ * and describes how much a delay at node k is absorbed by the waiting times behind it.
+ */
+class RouteInsertionProfile {
+    private static final int NO_EARLIEST_FINISH = Integer.MIN_VALUE / 2;
+
+    private final ProblemContext problem;
+    private final int speedClass;
+    private final int loadFactorClass;
+
+    private int size;
+    private int[] locations;
+    private int[] activeTimes;
+    private int[] serviceTimes;
+    private int[] departureTimes;
+    private int[] loads;
+    private int[] mautKmTillNode;
+    private int[] suffixDuration;
+    private int[] suffixEarliestFinish;
+
+    private int candidatesCount;
+    private int[] candidatePickUpIndices;
+    private int[] candidateDeliveryIndices;
+    private int[] candidateMautKm;
+    private int[] candidateTime;
+
+    public RouteInsertionProfile(ProblemContext problem, int speedClass, int loadFactorClass) {
+        this.problem = problem;
+        this.speedClass = speedClass;
+        this.loadFactorClass = loadFactorClass;
+        this.candidatePickUpIndices = new int[16];
+        this.candidateDeliveryIndices = new int[16];
+        this.candidateMautKm = new int[16];
+        this.candidateTime = new int[16];
+    }
+
+    /**
+     * Builds prefix and suffix data of a valid route.
+     *
+     * @param route the route, starting and ending at the depot
+     * @param depot the depot
+     */
+    public void build(Route route, int depot) {
+        size = route.size();
+        if (locations == null || locations.length < size) {
+            int capacity = Math.max(size, 2 * size - 2);
+            locations = new int[capacity];
+            activeTimes = new int[capacity];
+            serviceTimes = new int[capacity];
+            departureTimes = new int[capacity];
+            loads = new int[capacity];
+            mautKmTillNode = new int[capacity];
+            suffixDuration = new int[capacity];
+            suffixEarliestFinish = new int[capacity];
+        }
+        locations[0] = depot;
+        locations[size - 1] = depot;
+        activeTimes[size - 1] = 0;
+        serviceTimes[size - 1] = 0;
+        departureTimes[0] = 0;
+        loads[0] = 0;
+        mautKmTillNode[0] = 0;
+        for (int k = 1; k < size; k++) {
+            if (k != size - 1) {
+                int node = route.get(k);
+                int transportIndex = Route.transportIndexOf(node);
+                Transport transport = problem.getTransport(transportIndex);
+                serviceTimes[k] = problem.getServiceTime(loadFactorClass, transportIndex);
+                if (Route.isPickUpNode(node)) {
+                    locations[k] = transport.getFrom();
+                    activeTimes[k] = transport.getActiveTimeOfPickup();
+                    loads[k] = loads[k - 1] + transport.getAmount();
+                } else {
+                    locations[k] = transport.getTo();
+                    activeTimes[k] = transport.getActiveTimeOfDelivery();
+                    loads[k] = loads[k - 1] - transport.getAmount();
+                }
+            } else {
+                loads[k] = 0;
+            }
+            departureTimes[k] = Math.max(departureTimes[k - 1] + rideTime(locations[k - 1], locations[k]), activeTimes[k]) + serviceTimes[k];
+            mautKmTillNode[k] = mautKmTillNode[k - 1] + problem.getMautKm(locations[k - 1], locations[k]);
+        }
+        suffixDuration[size - 1] = 0;
+        suffixEarliestFinish[size - 1] = NO_EARLIEST_FINISH;
+        for (int k = size - 2; k >= 0; k--) {
+            int duration = serviceTimes[k] + rideTime(locations[k], locations[k + 1]) + suffixDuration[k + 1];
+            suffixDuration[k] = duration;
+            suffixEarliestFinish[k] = Math.max(activeTimes[k] + duration, suffixEarliestFinish[k + 1]);
+        }
+    }
+
+    /**
+     * Prices every position of the pickup and delivery of a transport, which respects the vehicle capacity.
+     * Positions are given as indices of the route after the insertion: the pickup is inserted at the pickup index,
+     * then the delivery is inserted at the delivery index.
+     *
+     * @param transportIndex index of the transport in transports array
+     * @param vehicleCap     capacity of the vehicle
+     * @return number of priced positions, which can be read with the candidate getters
+     */
+    public int priceInsertions(int transportIndex, int vehicleCap) {
+        Transport transport = problem.getTransport(transportIndex);
+        int amount = transport.getAmount();
+        int from = transport.getFrom();
+        int to = transport.getTo();
+        int pickUpActiveTime = transport.getActiveTimeOfPickup();
+        int deliveryActiveTime = transport.getActiveTimeOfDelivery();
+        int serviceTime = problem.getServiceTime(loadFactorClass, transportIndex);
+        int totalMautKm = mautKmTillNode[size - 1];
+        candidatesCount = 0;
+
+        // the pickup is inserted before node i, the delivery before node j of the original route
+        for (int i = 1; i < Math.max(2, size - 1); i++) {
+            if (loads[i - 1] + amount > vehicleCap) {
+                continue;
+            }
+            int bound = i;
+            for (int k = i; k < size - 1; k++) {
+                if (loads[k] + amount <= vehicleCap) {
+                    bound = k;
+                } else {
+                    break;
+                }
+            }
+            int previous = locations[i - 1];
+            int pickUpDeparture = Math.max(departureTimes[i - 1] + rideTime(previous, from), pickUpActiveTime) + serviceTime;
+            int pickUpMautKm = totalMautKm - problem.getMautKm(previous, locations[i]) + problem.getMautKm(previous, from);
+
+            // delivery directly after the pickup
+            int deliveryDeparture = Math.max(pickUpDeparture + rideTime(from, to), deliveryActiveTime) + serviceTime;
+            addCandidate(i, i + 1, pickUpMautKm + problem.getMautKm(from, to) + problem.getMautKm(to, locations[i]),
+                    finishTime(i, deliveryDeparture + rideTime(to, locations[i])));
+
+            // delivery after nodes i..j-1, the departure time from node j-1 is max(arrival at i + segmentDuration, segmentEarliestDeparture)
+            int arrivalAtI = pickUpDeparture + rideTime(from, locations[i]);
+            int afterPickUpMautKm = pickUpMautKm + problem.getMautKm(from, locations[i]);
+            int segmentDuration = serviceTimes[i];
+            int segmentEarliestDeparture = activeTimes[i] + serviceTimes[i];
+            for (int j = i + 1; j <= bound; j++) {
+                int last = locations[j - 1];
+                int departure = Math.max(arrivalAtI + segmentDuration, segmentEarliestDeparture);
+                deliveryDeparture = Math.max(departure + rideTime(last, to), deliveryActiveTime) + serviceTime;
+                int mautKm = afterPickUpMautKm - problem.getMautKm(last, locations[j]) + problem.getMautKm(last, to) + problem.getMautKm(to, locations[j]);
+                addCandidate(i, j + 1, mautKm, finishTime(j, deliveryDeparture + rideTime(to, locations[j])));
+
+                int ride = rideTime(last, locations[j]);
+                segmentDuration = segmentDuration + ride + serviceTimes[j];
+                segmentEarliestDeparture = Math.max(segmentEarliestDeparture + ride, activeTimes[j]) + serviceTimes[j];
+            }
+        }
+        return candidatesCount;
+    }
+
+    public int getCandidatePickUpIndex(int candidate) {
+        return candidatePickUpIndices[candidate];
+    }
+
+    public int getCandidateDeliveryIndex(int candidate) {
+        return candidateDeliveryIndices[candidate];
+    }
+
+    public int getCandidateMautKm(int candidate) {
+        return candidateMautKm[candidate];
+    }
+
+    public int getCandidateTime(int candidate) {
+        return candidateTime[candidate];
+    }
+
+    private int finishTime(int node, int arrival) {
+        return Math.max(arrival + suffixDuration[node], suffixEarliestFinish[node]);
+    }
+
+    private int rideTime(int previous, int actual) {
+        return problem.getRideTime(speedClass, previous, actual);
+    }
+
+    private void addCandidate(int pickUpIndex, int deliveryIndex, int mautKm, int time) {
+        if (candidatesCount == candidatePickUpIndices.length) {
+            int capacity = candidatesCount * 2;
+            candidatePickUpIndices = Arrays.copyOf(candidatePickUpIndices, capacity);
+            candidateDeliveryIndices = Arrays.copyOf(candidateDeliveryIndices, capacity);
+            candidateMautKm = Arrays.copyOf(candidateMautKm, capacity);
+            candidateTime = Arrays.copyOf(candidateTime, capacity);
+        }
+        candidatePickUpIndices[candidatesCount] = pickUpIndex;
+        candidateDeliveryIndices[candidatesCount] = deliveryIndex;
+        candidateMautKm[candidatesCount] = mautKm;
+        candidateTime[candidatesCount] = time;
+        candidatesCount++;
+    }
+}
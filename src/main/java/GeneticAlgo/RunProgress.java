@@ -0,0 +1,93 @@
+package GeneticAlgo;
+
+import Model.ChromosomeKeyObjectiveValue;
+import Model.ObjectivesPoint;
+import Model.SolverConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Progress of a run, which decides when the limits of the solver configuration are reached.
+ */
+class RunProgress {
+    private final SolverConfig config;
+    private final long startTime;
+    private final long deadline;
+    private long evaluations;
+    private int stagnantGenerations;
+    private double[] previousFirstFront;
+    private double previousHypervolume = Double.NaN;
+
+    RunProgress(SolverConfig config) {
+        this.config = config;
+        this.startTime = System.currentTimeMillis();
+        this.deadline = config.getTimeLimitMillis() > 0 ? startTime + config.getTimeLimitMillis() : Long.MAX_VALUE;
+    }
+
+    void addEvaluations(long count) {
+        evaluations = evaluations + count;
+    }
+
+    long getEvaluations() {
+        return evaluations;
+    }
+
+    long getElapsedMillis() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Method to record the first front of a generation and to check the limits.
+     *
+     * @param generationCount number of the generation
+     * @param firstFront      first front after the survival selection
+     * @param hypervolume     hypervolume of the first front
+     * @return the reason to stop, null if the run goes on
+     */
+    String update(int generationCount, ArrayList<ChromosomeKeyObjectiveValue> firstFront, double hypervolume) {
+        boolean stagnant;
+        if(config.getMinHypervolumeImprovement() > 0) {
+            stagnant = hypervolume - previousHypervolume < config.getMinHypervolumeImprovement() * previousHypervolume;
+        }
+        else {
+            double[] objectives = sortedObjectivesOf(firstFront);
+            stagnant = Arrays.equals(objectives, previousFirstFront);
+            previousFirstFront = objectives;
+        }
+        stagnantGenerations = stagnant ? stagnantGenerations + 1 : 0;
+        previousHypervolume = hypervolume;
+
+        if(generationCount >= config.getMaxGenerations()) {
+            return "generation cap";
+        }
+        if(System.currentTimeMillis() >= deadline) {
+            return "time limit";
+        }
+        if(config.getMaxEvaluations() > 0 && evaluations >= config.getMaxEvaluations()) {
+            return "evaluation budget";
+        }
+        if(config.getStagnationGenerations() > 0 && stagnantGenerations >= config.getStagnationGenerations()) {
+            return "first front stagnant for " + stagnantGenerations + " generations";
+        }
+        return null;
+    }
+
+    /**
+     * @return objectives of a front as (x, y) pairs in sorted order, so two fronts with the same points give equal arrays
+     */
+    private static double[] sortedObjectivesOf(ArrayList<ChromosomeKeyObjectiveValue> front) {
+        ObjectivesPoint[] points = new ObjectivesPoint[front.size()];
+        for(int i = 0 ; i < front.size() ; i++) {
+            points[i] = front.get(i).getObjectivesPoint();
+        }
+        Arrays.sort(points, Comparator.comparingDouble(ObjectivesPoint::getX).thenComparingDouble(ObjectivesPoint::getY));
+        double[] objectives = new double[2 * points.length];
+        for(int i = 0 ; i < points.length ; i++) {
+            objectives[2 * i] = points[i].getX();
+            objectives[2 * i + 1] = points[i].getY();
+        }
+        return objectives;
+    }
+}
@@ -0,0 +1,201 @@
+package GeneticAlgo;
+
+import Model.ChromosomeKeyObjectiveValue;
+import Model.ObjectivesPoint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Population of the steady-state engine, whose fronts are updated incrementally. Every front is sorted by the first
+ * objective, so in a front the second objective is sorted in reverse order. A new individual is put into the first front,
+ * which does not dominate it, found by binary search, and the individuals, which it dominates, move down front by front.
+ * Only the engine thread uses this class.
+ */
+class SteadyStatePopulation {
+    private static final Comparator<Member> BY_OBJECTIVES = Comparator.<Member>comparingDouble(m -> m.x).thenComparingDouble(m -> m.y);
+
+    private final ArrayList<ArrayList<Member>> fronts = new ArrayList<>();
+    private final ArrayList<Member> members = new ArrayList<>();
+
+    private static class Member {
+        private final Chromosome chromosome;
+        private final double x;
+        private final double y;
+        private int rank;
+
+        private Member(Chromosome chromosome) {
+            ObjectivesPoint point = chromosome.getObjectivesPoint();
+            this.chromosome = chromosome;
+            this.x = point.getX();
+            this.y = point.getY();
+        }
+    }
+
+    int size() {
+        return members.size();
+    }
+
+    /**
+     * Method to add an individual and to update the ranks of the individuals, which it dominates directly or indirectly.
+     */
+    void insert(Chromosome chromosome) {
+        Member member = new Member(chromosome);
+        members.add(member);
+        // a front, which dominates the individual, is preceded by fronts, which dominate it too
+        int low = 0;
+        int high = fronts.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (isDominatedBy(fronts.get(middle), member.x, member.y)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        ArrayList<Member> moved = new ArrayList<>();
+        moved.add(member);
+        for (int rank = low; !moved.isEmpty(); rank++) {
+            if (rank == fronts.size()) {
+                fronts.add(new ArrayList<>());
+            }
+            ArrayList<Member> front = fronts.get(rank);
+            ArrayList<Member> dominated = new ArrayList<>();
+            ArrayList<Member> kept = new ArrayList<>();
+            for (Member m : front) {
+                if (isDominatedBy(moved, m.x, m.y)) {
+                    dominated.add(m);
+                } else {
+                    kept.add(m);
+                }
+            }
+            for (Member m : moved) {
+                m.rank = rank;
+            }
+            kept.addAll(moved);
+            kept.sort(BY_OBJECTIVES);
+            fronts.set(rank, kept);
+            moved = dominated;
+        }
+    }
+
+    /**
+     * Method to remove the individual of the last front with the smallest crowding distance. The other fronts do not change.
+     */
+    void removeWorst() {
+        ArrayList<Member> lastFront = fronts.get(fronts.size() - 1);
+        int worst = 0;
+        double worstDistance = Double.MAX_VALUE;
+        for (int i = 0; i < lastFront.size(); i++) {
+            double distance = crowdingDistance(lastFront, i);
+            if (distance < worstDistance) {
+                worst = i;
+                worstDistance = distance;
+            }
+        }
+        members.remove(lastFront.remove(worst));
+        if (lastFront.isEmpty()) {
+            fronts.remove(fronts.size() - 1);
+        }
+    }
+
+    /**
+     * Method to select a parent by a binary tournament of the crowded comparison.
+     */
+    Chromosome selectParent(Random rand) {
+        Member first = members.get(rand.nextInt(members.size()));
+        Member second = members.get(rand.nextInt(members.size()));
+        if (first.rank != second.rank) {
+            return first.rank < second.rank ? first.chromosome : second.chromosome;
+        }
+        ArrayList<Member> front = fronts.get(first.rank);
+        if (crowdingDistance(front, indexOf(front, first)) >= crowdingDistance(front, indexOf(front, second))) {
+            return first.chromosome;
+        }
+        return second.chromosome;
+    }
+
+    /**
+     * Method to copy the individuals into a population list in the order of the fronts.
+     *
+     * @param population list, which receives the individuals
+     * @return the fronts, whose keys are positions in the population list
+     */
+    ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> toFronts(ArrayList<Chromosome> population) {
+        ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> result = new ArrayList<>();
+        for (ArrayList<Member> front : fronts) {
+            ArrayList<ChromosomeKeyObjectiveValue> keys = new ArrayList<>();
+            for (Member m : front) {
+                keys.add(new ChromosomeKeyObjectiveValue(population.size(), new ObjectivesPoint(m.x, m.y)));
+                population.add(m.chromosome);
+            }
+            result.add(keys);
+        }
+        return result;
+    }
+
+    /**
+     * @return position of the member in its front, found by binary search. Members with the same objectives are next to
+     * each other, so only these are compared by identity.
+     */
+    private static int indexOf(ArrayList<Member> front, Member member) {
+        int low = 0;
+        int high = front.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (BY_OBJECTIVES.compare(front.get(middle), member) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        while (front.get(low) != member) {
+            low++;
+        }
+        return low;
+    }
+
+    /**
+     * @return true if a member of the sorted, non dominated list dominates the point. The member with the largest x,
+     * which is not larger than the x of the point, has the smallest y of the candidates.
+     */
+    private static boolean isDominatedBy(ArrayList<Member> front, double x, double y) {
+        int low = 0;
+        int high = front.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (front.get(middle).x <= x) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == 0) {
+            return false;
+        }
+        Member candidate = front.get(low - 1);
+        return candidate.y <= y && (candidate.x < x || candidate.y < y);
+    }
+
+    /**
+     * @return the crowding distance of a member of a front, in a front sorted by x the neighbours are the same for both
+     * objectives
+     */
+    private static double crowdingDistance(ArrayList<Member> front, int index) {
+        int last = front.size() - 1;
+        if (index == 0 || index == last) {
+            return Double.MAX_VALUE;
+        }
+        double rangeX = front.get(last).x - front.get(0).x;
+        double rangeY = front.get(0).y - front.get(last).y;
+        double distance = 0;
+        if (rangeX > 0) {
+            distance = distance + (front.get(index + 1).x - front.get(index - 1).x) / rangeX;
+        }
+        if (rangeY > 0) {
+            distance = distance + (front.get(index - 1).y - front.get(index + 1).y) / rangeY;
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,173 @@
+package GeneticAlgo;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Transports indices of a gene stored in a growable int array. The insertion order is kept, because routes are built
+ * by inserting the transports in this order.
+ * <p>
+ * Like {@link Route} a copy shares the array with its original until one of them is changed.
+ */
+class TransportSet {
+    private int[] indices;
+    private int size;
+    private volatile boolean shared;
+
+    public TransportSet() {
+        this(8);
+    }
+
+    public TransportSet(int capacity) {
+        this.indices = new int[Math.max(capacity, 1)];
+        this.size = 0;
+    }
+
+    /**
+     * Creates a set with the transports indices 0 .. count-1.
+     */
+    public static TransportSet range(int count) {
+        TransportSet set = new TransportSet(count);
+        for (int i = 0; i < count; i++) {
+            set.indices[i] = i;
+        }
+        set.size = count;
+        return set;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int i) {
+        return indices[i];
+    }
+
+    public boolean contains(int transportIndex) {
+        for (int i = 0; i < size; i++) {
+            if (indices[i] == transportIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(int transportIndex) {
+        prepareWrite();
+        if (size == indices.length) {
+            indices = Arrays.copyOf(indices, size * 2);
+        }
+        indices[size] = transportIndex;
+        size++;
+    }
+
+    public void addAll(TransportSet other) {
+        prepareWrite();
+        if (size + other.size > indices.length) {
+            indices = Arrays.copyOf(indices, Math.max(size + other.size, size * 2));
+        }
+        System.arraycopy(other.indices, 0, indices, size, other.size);
+        size = size + other.size;
+    }
+
+    /**
+     * Removes a transport index and keeps the order of the others.
+     *
+     * @return true if the index was in this set
+     */
+    public boolean remove(int transportIndex) {
+        for (int i = 0; i < size; i++) {
+            if (indices[i] == transportIndex) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int removeAt(int i) {
+        prepareWrite();
+        int transportIndex = indices[i];
+        System.arraycopy(indices, i + 1, indices, i, size - i - 1);
+        size--;
+        return transportIndex;
+    }
+
+    /**
+     * Removes all transports indices of another set in one pass.
+     */
+    public void removeAll(TransportSet other) {
+        prepareWrite();
+        BitSet toRemove = new BitSet();
+        for (int i = 0; i < other.size; i++) {
+            toRemove.set(other.indices[i]);
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!toRemove.get(indices[i])) {
+                indices[kept] = indices[i];
+                kept++;
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * Keeps only the first count transports indices.
+     */
+    public void truncate(int count) {
+        size = Math.min(size, count);
+    }
+
+    public void shuffle(Random random) {
+        prepareWrite();
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int index = indices[i];
+            indices[i] = indices[j];
+            indices[j] = index;
+        }
+    }
+
+    /**
+     * Creates a copy in O(1), which shares the indices with this set until one of both is changed.
+     */
+    public TransportSet copy() {
+        shared = true;
+        TransportSet copy = new TransportSet(indices, size);
+        copy.shared = true;
+        return copy;
+    }
+
+    private TransportSet(int[] indices, int size) {
+        this.indices = indices;
+        this.size = size;
+    }
+
+    /**
+     * Copies the shared indices before the first change of this set.
+     */
+    private void prepareWrite() {
+        if (shared) {
+            indices = Arrays.copyOf(indices, indices.length);
+            shared = false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i != 0) {
+                builder.append(", ");
+            }
+            builder.append(indices[i]);
+        }
+        return builder.append("]").toString();
+    }
+}
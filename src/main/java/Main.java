@@ -1,13 +1,43 @@
 import GeneticAlgo.GeneticAlgorithm;
+import GeneticAlgo.MigrationCoordinator;
+import Model.MigrationTopology;
+import Model.ProblemInstance;
+import Model.Solution;
+import Service.InstanceFileService;
 import com.github.sh0nk.matplotlib4j.Plot;
 import com.github.sh0nk.matplotlib4j.PythonExecutionException;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.List;
 
 public class Main {
 
     public static void main(String[] args) throws PythonExecutionException, IOException {
+        if (args.length == 3 && args[0].equals("coordinator")) {
+            // coordinator <address> <island count>, address is host:port or unix:path
+            printSolutions(new MigrationCoordinator(args[1], Integer.parseInt(args[2]), MigrationTopology.RING).run());
+            return;
+        }
+        if (args.length == 3 && args[0].equals("island")) {
+            // island <address of the coordinator> <binary instance file>
+            ProblemInstance instance = new InstanceFileService().openInstance(Paths.get(args[2]));
+            try (GeneticAlgorithm island = new GeneticAlgorithm()) {
+                island.setHeadless(true);
+                island.getConfig().setMigrationCoordinatorAddress(args[1]);
+                island.solve(instance);
+            }
+            return;
+        }
+        if (args.length == 1) {
+            // binary instance file, see InstanceFileService
+            ProblemInstance instance = new InstanceFileService().openInstance(Paths.get(args[0]));
+            try (GeneticAlgorithm genSolver = new GeneticAlgorithm()) {
+                printSolutions(genSolver.solve(instance));
+            }
+            return;
+        }
 
         int[][] distanceMatrix = {
                 {0, 54, 77, 69, 58, 27, 50, 19, 30, 19, 53, 50, 38, 35, 46, 77, 66},
@@ -68,8 +98,14 @@ public class Main {
                 {2, 0, 80, 100, 10,10},
                 {3,2,80,100,10,10}
         };
-        GeneticAlgorithm genSolver = new GeneticAlgorithm();
-        genSolver.solve(distanceMatrix,distanceMatrix,vehiclesMatrix,pickupsDeliveries);
+        try (GeneticAlgorithm genSolver = new GeneticAlgorithm()) {
+            printSolutions(genSolver.solve(distanceMatrix,distanceMatrix,vehiclesMatrix,pickupsDeliveries));
+        }
 
     }
+
+    private static void printSolutions(List<Solution> solutions) {
+        System.out.println("BEST INDIVIDUALS :");
+        solutions.forEach(System.out::println);
+    }
 }
@@ -0,0 +1,32 @@
+package Model;
+
+/**
+ * Constraint, which is violated by an infeasible chromosome.
+ */
+public enum ConstraintViolation {
+    /**
+     * no constraint is violated
+     */
+    NONE,
+    /**
+     * a route does not start and end at the depot, overloads its vehicle, delivers before the pickup or misses an
+     * assigned transport
+     */
+    ROUTE_INVALID,
+    /**
+     * a vehicle is used by more than one route
+     */
+    VEHICLE_USED_TWICE,
+    /**
+     * a transport is assigned to a vehicle with a smaller capacity than its amount
+     */
+    TRANSPORT_EXCEEDS_CAPACITY,
+    /**
+     * a transport is not assigned to any vehicle
+     */
+    TRANSPORT_UNASSIGNED,
+    /**
+     * a transport is assigned to more than one vehicle
+     */
+    TRANSPORT_ASSIGNED_TWICE
+}
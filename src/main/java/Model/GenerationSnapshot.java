@@ -0,0 +1,72 @@
+package Model;
+
+/**
+ * Copy of the objective values of the fronts of one generation. It does not reference chromosomes, so it can be read
+ * by another thread while the search goes on.
+ */
+public class GenerationSnapshot {
+    private final int generation;
+    private final boolean finalGeneration;
+    private final double[][] mautKmOfFronts;
+    private final double[][] timeOfFronts;
+    private final ObjectivesPoint median;
+    private final double hypervolume;
+    private final long elapsedMillis;
+
+    public GenerationSnapshot(int generation, boolean finalGeneration, double[][] mautKmOfFronts, double[][] timeOfFronts, ObjectivesPoint median, double hypervolume, long elapsedMillis) {
+        this.generation = generation;
+        this.finalGeneration = finalGeneration;
+        this.mautKmOfFronts = mautKmOfFronts;
+        this.timeOfFronts = timeOfFronts;
+        this.median = median;
+        this.hypervolume = hypervolume;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public boolean isFinalGeneration() {
+        return finalGeneration;
+    }
+
+    public int getFrontsCount() {
+        return mautKmOfFronts.length;
+    }
+
+    /**
+     * @return total maut km of the individuals of a front, the first front is not dominated
+     */
+    public double[] getMautKmOfFront(int front) {
+        return mautKmOfFronts[front].clone();
+    }
+
+    /**
+     * @return max time of the individuals of a front, in the order of {@link #getMautKmOfFront}
+     */
+    public double[] getTimeOfFront(int front) {
+        return timeOfFronts[front].clone();
+    }
+
+    /**
+     * @return geometric median of all individuals, (x: maut km, y: time)
+     */
+    public ObjectivesPoint getMedian() {
+        return new ObjectivesPoint(median.getX(), median.getY());
+    }
+
+    /**
+     * @return hypervolume of the first front, see {@link Service.HelperService#hypervolume}
+     */
+    public double getHypervolume() {
+        return hypervolume;
+    }
+
+    /**
+     * @return wall-clock time from the start of the run to the survival selection of this generation
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
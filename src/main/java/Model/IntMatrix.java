@@ -0,0 +1,185 @@
+package Model;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Square matrix of int values stored in one flat row-major array. A symmetric matrix only stores its upper triangle.
+ * Values are stored as char or short, if their range allows it, so a matrix of 20 000 locations with values below 65 536
+ * needs 400 MB (200 MB if symmetric) instead of 1.6 GB.
+ * <p>
+ * The values are written once with {@link #set} while the matrix is created and only read afterwards.
+ */
+public abstract class IntMatrix {
+    private final int size;
+    private final boolean symmetric;
+
+    protected IntMatrix(int size, boolean symmetric) {
+        this.size = size;
+        this.symmetric = symmetric;
+    }
+
+    /**
+     * Method to create an empty matrix with the most compact storage for the given value range.
+     *
+     * @param size      number of rows and columns
+     * @param symmetric true if only the upper triangle is stored
+     * @param minValue  smallest value, which will be stored
+     * @param maxValue  largest value, which will be stored
+     * @return the matrix, filled with 0
+     */
+    public static IntMatrix create(int size, boolean symmetric, int minValue, int maxValue) {
+        long length = symmetric ? (long) size * (size + 1) / 2 : (long) size * size;
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new RuntimeException("matrix of " + size + " locations is too large");
+        }
+        if (minValue >= Character.MIN_VALUE && maxValue <= Character.MAX_VALUE) {
+            return new CharMatrix(size, symmetric, (int) length);
+        }
+        if (minValue >= Short.MIN_VALUE && maxValue <= Short.MAX_VALUE) {
+            return new ShortMatrix(size, symmetric, (int) length);
+        }
+        return new IntArrayMatrix(size, symmetric, (int) length);
+    }
+
+    /**
+     * Method to copy a matrix of rows into the most compact storage. The upper triangle is used, if the matrix is symmetric.
+     *
+     * @param matrix square matrix
+     * @return the compact matrix
+     */
+    public static IntMatrix of(int[][] matrix) {
+        int size = matrix.length;
+        boolean symmetric = true;
+        int minValue = Integer.MAX_VALUE;
+        int maxValue = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (matrix[i].length != size) {
+                throw new RuntimeException("matrix is not square, row " + i + " has " + matrix[i].length + " values");
+            }
+            for (int j = 0; j < size; j++) {
+                minValue = Math.min(minValue, matrix[i][j]);
+                maxValue = Math.max(maxValue, matrix[i][j]);
+                if (j > i && matrix[i][j] != matrix[j][i]) {
+                    symmetric = false;
+                }
+            }
+        }
+        IntMatrix result = create(size, symmetric, Math.min(minValue, 0), Math.max(maxValue, 0));
+        for (int i = 0; i < size; i++) {
+            for (int j = symmetric ? i : 0; j < size; j++) {
+                result.set(i, j, matrix[i][j]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to create a matrix with the same layout, whose values are the values of this matrix mapped by a function.
+     *
+     * @param function function of the values
+     * @return the new matrix
+     */
+    public IntMatrix mapValues(IntUnaryOperator function) {
+        int minValue = 0;
+        int maxValue = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = symmetric ? i : 0; j < size; j++) {
+                int value = function.applyAsInt(get(i, j));
+                minValue = Math.min(minValue, value);
+                maxValue = Math.max(maxValue, value);
+            }
+        }
+        IntMatrix result = create(size, symmetric, minValue, maxValue);
+        for (int i = 0; i < size; i++) {
+            for (int j = symmetric ? i : 0; j < size; j++) {
+                result.set(i, j, function.applyAsInt(get(i, j)));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    public abstract int get(int i, int j);
+
+    /**
+     * Sets a value while the matrix is created. For a symmetric matrix, (i, j) and (j, i) are the same value.
+     */
+    public abstract void set(int i, int j, int value);
+
+    protected final int index(int i, int j) {
+        if (!symmetric) {
+            return i * size + j;
+        }
+        if (i > j) {
+            int swap = i;
+            i = j;
+            j = swap;
+        }
+        // rows 0 .. i-1 of the upper triangle store size + (size-1) + ... + (size-i+1) values
+        return (int) ((long) i * (2 * size - i + 1) / 2) + (j - i);
+    }
+
+    private static final class CharMatrix extends IntMatrix {
+        private final char[] values;
+
+        private CharMatrix(int size, boolean symmetric, int length) {
+            super(size, symmetric);
+            this.values = new char[length];
+        }
+
+        @Override
+        public int get(int i, int j) {
+            return values[index(i, j)];
+        }
+
+        @Override
+        public void set(int i, int j, int value) {
+            values[index(i, j)] = (char) value;
+        }
+    }
+
+    private static final class ShortMatrix extends IntMatrix {
+        private final short[] values;
+
+        private ShortMatrix(int size, boolean symmetric, int length) {
+            super(size, symmetric);
+            this.values = new short[length];
+        }
+
+        @Override
+        public int get(int i, int j) {
+            return values[index(i, j)];
+        }
+
+        @Override
+        public void set(int i, int j, int value) {
+            values[index(i, j)] = (short) value;
+        }
+    }
+
+    private static final class IntArrayMatrix extends IntMatrix {
+        private final int[] values;
+
+        private IntArrayMatrix(int size, boolean symmetric, int length) {
+            super(size, symmetric);
+            this.values = new int[length];
+        }
+
+        @Override
+        public int get(int i, int j) {
+            return values[index(i, j)];
+        }
+
+        @Override
+        public void set(int i, int j, int value) {
+            values[index(i, j)] = value;
+        }
+    }
+}
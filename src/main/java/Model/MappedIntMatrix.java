@@ -0,0 +1,102 @@
+package Model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only {@link IntMatrix} whose values are read directly from a memory-mapped block of a file.
+ * The block is mapped in chunks of 1 GB, because one mapping can not be larger than 2 GB. The pages belong to the page cache,
+ * so the matrix does not use heap and processes, which map the same file, share the pages.
+ */
+public class MappedIntMatrix extends IntMatrix {
+    public static final byte CHAR_VALUES = 1;
+    public static final byte SHORT_VALUES = 2;
+    public static final byte INT_VALUES = 4;
+
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final byte valueType;
+    private final int valueShift;
+    private final ByteBuffer[] chunks;
+
+    /**
+     * @param channel   channel of the file
+     * @param offset    position of the first value in the file
+     * @param size      number of rows and columns
+     * @param symmetric true if only the upper triangle is stored
+     * @param valueType {@link #CHAR_VALUES}, {@link #SHORT_VALUES} or {@link #INT_VALUES}
+     */
+    public MappedIntMatrix(FileChannel channel, long offset, int size, boolean symmetric, byte valueType) throws IOException {
+        super(size, symmetric);
+        this.valueType = valueType;
+        this.valueShift = valueShift(valueType);
+        long length = blockLength(size, symmetric, valueType);
+        if ((length >>> valueShift) > Integer.MAX_VALUE) {
+            throw new RuntimeException("matrix of " + size + " locations is too large");
+        }
+        if (offset + length > channel.size()) {
+            throw new RuntimeException("matrix block ends at " + (offset + length) + " behind the end of the file " + channel.size());
+        }
+        int chunksCount = (int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT);
+        this.chunks = new ByteBuffer[chunksCount];
+        for (int c = 0; c < chunksCount; c++) {
+            long chunkOffset = (long) c << CHUNK_SHIFT;
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, offset + chunkOffset, Math.min(length - chunkOffset, 1L << CHUNK_SHIFT));
+        }
+    }
+
+    /**
+     * @return number of bytes of a matrix block
+     */
+    public static long blockLength(int size, boolean symmetric, byte valueType) {
+        long values = symmetric ? (long) size * (size + 1) / 2 : (long) size * size;
+        return values << valueShift(valueType);
+    }
+
+    /**
+     * @return the smallest value type, which can store all values between minValue and maxValue
+     */
+    public static byte valueTypeOf(int minValue, int maxValue) {
+        if (minValue >= Character.MIN_VALUE && maxValue <= Character.MAX_VALUE) {
+            return CHAR_VALUES;
+        }
+        if (minValue >= Short.MIN_VALUE && maxValue <= Short.MAX_VALUE) {
+            return SHORT_VALUES;
+        }
+        return INT_VALUES;
+    }
+
+    private static int valueShift(byte valueType) {
+        switch (valueType) {
+            case CHAR_VALUES:
+            case SHORT_VALUES:
+                return 1;
+            case INT_VALUES:
+                return 2;
+            default:
+                throw new RuntimeException("unknown value type " + valueType);
+        }
+    }
+
+    @Override
+    public int get(int i, int j) {
+        long position = (long) index(i, j) << valueShift;
+        ByteBuffer chunk = chunks[(int) (position >>> CHUNK_SHIFT)];
+        int positionInChunk = (int) (position & CHUNK_MASK);
+        switch (valueType) {
+            case CHAR_VALUES:
+                return chunk.getChar(positionInChunk);
+            case SHORT_VALUES:
+                return chunk.getShort(positionInChunk);
+            default:
+                return chunk.getInt(positionInChunk);
+        }
+    }
+
+    @Override
+    public void set(int i, int j, int value) {
+        throw new RuntimeException("mapped matrix is read only");
+    }
+}
@@ -0,0 +1,15 @@
+package Model;
+
+/**
+ * Determines, to which island the emigrants of an island are sent in the island model.
+ */
+public enum MigrationTopology {
+    /**
+     * island i sends to island i+1, the last island to the first one
+     */
+    RING,
+    /**
+     * every island sends to another island, which is choosen at random at each migration
+     */
+    RANDOM
+}
@@ -0,0 +1,68 @@
+package Model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the attempts of an operator and its infeasible results by violated constraint. The counters can be updated by
+ * concurrent tasks.
+ */
+public class OperatorStatistics {
+    private final String operator;
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLongArray violations = new AtomicLongArray(ConstraintViolation.values().length);
+
+    public OperatorStatistics(String operator) {
+        this.operator = operator;
+    }
+
+    /**
+     * Method to count an attempt of the operator.
+     *
+     * @param violation violated constraint of the result, {@link ConstraintViolation#NONE} if the result is feasible
+     */
+    public void recordAttempt(ConstraintViolation violation) {
+        attempts.incrementAndGet();
+        if (violation != ConstraintViolation.NONE) {
+            violations.incrementAndGet(violation.ordinal());
+        }
+    }
+
+    public void reset() {
+        attempts.set(0);
+        for (int i = 0; i < violations.length(); i++) {
+            violations.set(i, 0);
+        }
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public long getAttempts() {
+        return attempts.get();
+    }
+
+    public long getInfeasibleCount() {
+        long sum = 0;
+        for (int i = 0; i < violations.length(); i++) {
+            sum = sum + violations.get(i);
+        }
+        return sum;
+    }
+
+    public long getViolationCount(ConstraintViolation violation) {
+        return violations.get(violation.ordinal());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(operator + ": " + getAttempts() + " attempts, " + getInfeasibleCount() + " infeasible");
+        for (ConstraintViolation violation : ConstraintViolation.values()) {
+            if (violation != ConstraintViolation.NONE && getViolationCount(violation) > 0) {
+                builder.append(", ").append(violation).append(' ').append(getViolationCount(violation));
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package Model;
+
+/**
+ * Input of the solver: the distance and maut km matrices, the vehicles matrix (code, depot, capacity, deploy cost, speed, load factor)
+ * and the transports matrix (pickup, delivery, active time of pickup, active time of delivery, transports amount).
+ */
+public class ProblemInstance {
+    private IntMatrix distanceMatrix;
+    private IntMatrix mautKmMatrix;
+    private int[][] vehiclesMatrix;
+    private int[][] pickupDeliveriesMatrix;
+
+    public ProblemInstance(IntMatrix distanceMatrix, IntMatrix mautKmMatrix, int[][] vehiclesMatrix, int[][] pickupDeliveriesMatrix) {
+        this.distanceMatrix = distanceMatrix;
+        this.mautKmMatrix = mautKmMatrix;
+        this.vehiclesMatrix = vehiclesMatrix;
+        this.pickupDeliveriesMatrix = pickupDeliveriesMatrix;
+    }
+
+    public IntMatrix getDistanceMatrix() {
+        return distanceMatrix;
+    }
+
+    public void setDistanceMatrix(IntMatrix distanceMatrix) {
+        this.distanceMatrix = distanceMatrix;
+    }
+
+    public IntMatrix getMautKmMatrix() {
+        return mautKmMatrix;
+    }
+
+    public void setMautKmMatrix(IntMatrix mautKmMatrix) {
+        this.mautKmMatrix = mautKmMatrix;
+    }
+
+    public int[][] getVehiclesMatrix() {
+        return vehiclesMatrix;
+    }
+
+    public void setVehiclesMatrix(int[][] vehiclesMatrix) {
+        this.vehiclesMatrix = vehiclesMatrix;
+    }
+
+    public int[][] getPickupDeliveriesMatrix() {
+        return pickupDeliveriesMatrix;
+    }
+
+    public void setPickupDeliveriesMatrix(int[][] pickupDeliveriesMatrix) {
+        this.pickupDeliveriesMatrix = pickupDeliveriesMatrix;
+    }
+}
@@ -0,0 +1,48 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A solution of the final Pareto set: the routes of the used vehicles and the objectives of the solution.
+ */
+public class Solution {
+    private final List<VehicleRoute> routes;
+    private final int totalMautKm;
+    private final int maxTime;
+
+    public Solution(List<VehicleRoute> routes, int totalMautKm, int maxTime) {
+        this.routes = Collections.unmodifiableList(new ArrayList<>(routes));
+        this.totalMautKm = totalMautKm;
+        this.maxTime = maxTime;
+    }
+
+    public List<VehicleRoute> getRoutes() {
+        return routes;
+    }
+
+    public int getTotalMautKm() {
+        return totalMautKm;
+    }
+
+    public int getMaxTime() {
+        return maxTime;
+    }
+
+    /**
+     * @return (x: total maut km, y: max time)
+     */
+    public ObjectivesPoint getObjectivesPoint() {
+        return new ObjectivesPoint(totalMautKm, maxTime);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("total maut km " + totalMautKm + " max time " + maxTime);
+        for (VehicleRoute route : routes) {
+            builder.append(System.lineSeparator()).append("   ").append(route);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,258 @@
+package Model;
+
+/**
+ * Parameters of a run of the genetic algorithm. A limit of 0 is no limit. The run ends after the survival selection of the
+ * generation, in which the first limit is reached.
+ */
+public class SolverConfig {
+    public static final int DEFAULT_ROUTE_EVALUATION_CACHE_SIZE = 1 << 16;
+    /**
+     * smallest population, from which the crossover can select two distinct parents
+     */
+    public static final int MIN_POPULATION_SIZE = 4;
+
+    private int populationSize = 30;
+    private int maxGenerations = 10;
+    private double crossoverRate = 0.7;
+    private double mutationRate = 0.3;
+    private long timeLimitMillis;
+    private long maxEvaluations;
+    private int stagnationGenerations;
+    private double minHypervolumeImprovement;
+    private ObjectivesPoint hypervolumeReferencePoint;
+    private int islandCount = 1;
+    private int migrationInterval = 5;
+    private int migrationSize = 2;
+    private MigrationTopology migrationTopology = MigrationTopology.RING;
+    private String migrationCoordinatorAddress;
+    private boolean steadyState;
+    private ValidationLevel validationLevel = ValidationLevel.FULL;
+    private int routeEvaluationCacheSize = DEFAULT_ROUTE_EVALUATION_CACHE_SIZE;
+
+    public SolverConfig() {
+    }
+
+    public SolverConfig(int populationSize, int maxGenerations, double crossoverRate, double mutationRate) {
+        this.populationSize = populationSize;
+        this.maxGenerations = maxGenerations;
+        this.crossoverRate = crossoverRate;
+        this.mutationRate = mutationRate;
+    }
+
+    /**
+     * Method to check the parameters before a run.
+     *
+     * @throws RuntimeException if a parameter is out of its range
+     */
+    public void validate() {
+        if (populationSize < MIN_POPULATION_SIZE) {
+            throw new RuntimeException("population size must be at least " + MIN_POPULATION_SIZE + ", but is " + populationSize);
+        }
+        if (maxGenerations < 0) {
+            throw new RuntimeException("max generations must not be negative, but is " + maxGenerations);
+        }
+        if (!(crossoverRate >= 0 && crossoverRate <= 1)) {
+            throw new RuntimeException("crossover rate must be in [0, 1], but is " + crossoverRate);
+        }
+        if (!(mutationRate >= 0 && mutationRate <= 1)) {
+            throw new RuntimeException("mutation rate must be in [0, 1], but is " + mutationRate);
+        }
+        if (timeLimitMillis < 0 || maxEvaluations < 0 || stagnationGenerations < 0) {
+            throw new RuntimeException("limits must not be negative");
+        }
+        if (!(minHypervolumeImprovement >= 0)) {
+            throw new RuntimeException("min hypervolume improvement must not be negative, but is " + minHypervolumeImprovement);
+        }
+        if (islandCount < 1) {
+            throw new RuntimeException("island count must be at least 1, but is " + islandCount);
+        }
+        if (migrationInterval < 1) {
+            throw new RuntimeException("migration interval must be at least 1, but is " + migrationInterval);
+        }
+        if (migrationSize < 0) {
+            throw new RuntimeException("migration size must not be negative, but is " + migrationSize);
+        }
+        boolean islandModel = islandCount > 1 && !steadyState && migrationCoordinatorAddress == null;
+        if (islandModel && populationSize / islandCount < MIN_POPULATION_SIZE) {
+            throw new RuntimeException("population size " + populationSize + " gives " + islandCount + " islands less than "
+                    + MIN_POPULATION_SIZE + " individuals each, use at most " + populationSize / MIN_POPULATION_SIZE + " islands");
+        }
+    }
+
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+    public void setPopulationSize(int populationSize) {
+        this.populationSize = populationSize;
+    }
+
+    public int getMaxGenerations() {
+        return maxGenerations;
+    }
+
+    public void setMaxGenerations(int maxGenerations) {
+        this.maxGenerations = maxGenerations;
+    }
+
+    public double getCrossoverRate() {
+        return crossoverRate;
+    }
+
+    public void setCrossoverRate(double crossoverRate) {
+        this.crossoverRate = crossoverRate;
+    }
+
+    public double getMutationRate() {
+        return mutationRate;
+    }
+
+    public void setMutationRate(double mutationRate) {
+        this.mutationRate = mutationRate;
+    }
+
+    /**
+     * @return wall-clock time of a run in milliseconds, 0 if unlimited
+     */
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * @return number of evaluated individuals (initial population and childs), 0 if unlimited
+     */
+    public long getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    public void setMaxEvaluations(long maxEvaluations) {
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    /**
+     * @return number of stagnant generations in a row, see {@link #getMinHypervolumeImprovement}, after which the run ends,
+     * 0 if unlimited
+     */
+    public int getStagnationGenerations() {
+        return stagnationGenerations;
+    }
+
+    public void setStagnationGenerations(int stagnationGenerations) {
+        this.stagnationGenerations = stagnationGenerations;
+    }
+
+    /**
+     * @return relative improvement of the hypervolume, below which a generation counts as stagnant. With 0 a generation
+     * is stagnant, if its first front is unchanged.
+     */
+    public double getMinHypervolumeImprovement() {
+        return minHypervolumeImprovement;
+    }
+
+    public void setMinHypervolumeImprovement(double minHypervolumeImprovement) {
+        this.minHypervolumeImprovement = minHypervolumeImprovement;
+    }
+
+    /**
+     * @return true if the steady-state engine is used: every child is created by its own task and inserted into the
+     * population as soon as it is finished. A generation then counts populationSize inserted childs.
+     */
+    public boolean isSteadyState() {
+        return steadyState;
+    }
+
+    public void setSteadyState(boolean steadyState) {
+        this.steadyState = steadyState;
+    }
+
+    /**
+     * @return how thoroughly chromosomes are checked after crossover, mutation and initialization
+     */
+    public ValidationLevel getValidationLevel() {
+        return validationLevel;
+    }
+
+    public void setValidationLevel(ValidationLevel validationLevel) {
+        this.validationLevel = validationLevel;
+    }
+
+    /**
+     * @return maximal number of cached route evaluations, 0 to disable the cache
+     */
+    public int getRouteEvaluationCacheSize() {
+        return routeEvaluationCacheSize;
+    }
+
+    public void setRouteEvaluationCacheSize(int routeEvaluationCacheSize) {
+        this.routeEvaluationCacheSize = routeEvaluationCacheSize;
+    }
+
+    /**
+     * @return number of islands, each evolves populationSize / islandCount individuals on its own thread. With 1 there is
+     * a single population. Every island needs at least {@link #MIN_POPULATION_SIZE} individuals.
+     */
+    public int getIslandCount() {
+        return islandCount;
+    }
+
+    public void setIslandCount(int islandCount) {
+        this.islandCount = islandCount;
+    }
+
+    /**
+     * @return number of generations between two migrations of the island model
+     */
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    public void setMigrationInterval(int migrationInterval) {
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * @return maximal number of first front individuals, which each island sends at a migration
+     */
+    public int getMigrationSize() {
+        return migrationSize;
+    }
+
+    public void setMigrationSize(int migrationSize) {
+        this.migrationSize = migrationSize;
+    }
+
+    public MigrationTopology getMigrationTopology() {
+        return migrationTopology;
+    }
+
+    public void setMigrationTopology(MigrationTopology migrationTopology) {
+        this.migrationTopology = migrationTopology;
+    }
+
+    /**
+     * @return address of the migration coordinator ("unix:" and a path or host:port), if this process is one island of
+     * a multi-process run, otherwise null. An island process evolves one population and ignores the island count.
+     */
+    public String getMigrationCoordinatorAddress() {
+        return migrationCoordinatorAddress;
+    }
+
+    public void setMigrationCoordinatorAddress(String migrationCoordinatorAddress) {
+        this.migrationCoordinatorAddress = migrationCoordinatorAddress;
+    }
+
+    /**
+     * @return reference point of the hypervolume (x: maut km, y: time), null to derive it from the initial population
+     */
+    public ObjectivesPoint getHypervolumeReferencePoint() {
+        return hypervolumeReferencePoint;
+    }
+
+    public void setHypervolumeReferencePoint(ObjectivesPoint hypervolumeReferencePoint) {
+        this.hypervolumeReferencePoint = hypervolumeReferencePoint;
+    }
+}
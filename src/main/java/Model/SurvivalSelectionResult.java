@@ -0,0 +1,46 @@
+package Model;
+
+import java.util.ArrayList;
+
+/**
+ * Result of the survival selection: the fronts of the next population and, for every position in the population,
+ * the rank (index of its front) and the crowding distance inside its front.
+ */
+public class SurvivalSelectionResult {
+    private ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts;
+    private int[] ranks;
+    private double[] crowdingDistances;
+
+    public SurvivalSelectionResult(ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts, int[] ranks, double[] crowdingDistances) {
+        this.fronts = fronts;
+        this.ranks = ranks;
+        this.crowdingDistances = crowdingDistances;
+    }
+
+    public ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> getFronts() {
+        return fronts;
+    }
+
+    public void setFronts(ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts) {
+        this.fronts = fronts;
+    }
+
+    public int getRank(int chromosomeKey) {
+        return ranks[chromosomeKey];
+    }
+
+    public double getCrowdingDistance(int chromosomeKey) {
+        return crowdingDistances[chromosomeKey];
+    }
+
+    /**
+     * @return true if the first individual wins the crowded comparison: a lower rank, or the same rank and a crowding distance
+     * not smaller than the one of the second individual
+     */
+    public boolean isCrowdedBetterOrEqual(int firstKey, int secondKey) {
+        if (ranks[firstKey] != ranks[secondKey]) {
+            return ranks[firstKey] < ranks[secondKey];
+        }
+        return crowdingDistances[firstKey] >= crowdingDistances[secondKey];
+    }
+}
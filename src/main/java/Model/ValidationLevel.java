@@ -0,0 +1,16 @@
+package Model;
+
+/**
+ * How thoroughly a chromosome is checked after crossover, mutation and initialization.
+ */
+public enum ValidationLevel {
+    /**
+     * every route is evaluated again
+     */
+    FULL,
+    /**
+     * routes, which are already verified for their vehicle and unchanged since, are not evaluated again, the assignment of
+     * transports and vehicles and the capacities are always checked
+     */
+    ASSIGNMENTS
+}
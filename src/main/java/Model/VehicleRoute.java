@@ -0,0 +1,67 @@
+package Model;
+
+/**
+ * Route of one vehicle in a solution. The stops are given in visiting order between the start and the end depot,
+ * each stop is the pickup or the delivery of a transport.
+ */
+public class VehicleRoute {
+    private final int vehicleIndex;
+    private final int depot;
+    private final int[] stopTransportIndices;
+    private final boolean[] stopIsPickUp;
+    private final int totalTime;
+    private final int totalMautKm;
+
+    public VehicleRoute(int vehicleIndex, int depot, int[] stopTransportIndices, boolean[] stopIsPickUp, int totalTime, int totalMautKm) {
+        this.vehicleIndex = vehicleIndex;
+        this.depot = depot;
+        this.stopTransportIndices = stopTransportIndices;
+        this.stopIsPickUp = stopIsPickUp;
+        this.totalTime = totalTime;
+        this.totalMautKm = totalMautKm;
+    }
+
+    public int getVehicleIndex() {
+        return vehicleIndex;
+    }
+
+    public int getDepot() {
+        return depot;
+    }
+
+    public int getStopsCount() {
+        return stopTransportIndices.length;
+    }
+
+    /**
+     * @return index of the transport in transports array, which is picked up or delivered at the stop
+     */
+    public int getTransportIndex(int stop) {
+        return stopTransportIndices[stop];
+    }
+
+    public boolean isPickUp(int stop) {
+        return stopIsPickUp[stop];
+    }
+
+    public int getTotalTime() {
+        return totalTime;
+    }
+
+    public int getTotalMautKm() {
+        return totalMautKm;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("vehicle " + vehicleIndex + " depot " + depot + " [");
+        for (int i = 0; i < stopTransportIndices.length; i++) {
+            if (i != 0) {
+                builder.append(", ");
+            }
+            builder.append(stopIsPickUp[i] ? "pickup " : "delivery ").append(stopTransportIndices[i]);
+        }
+        return builder.append("] total time ").append(totalTime).append(" total maut km ").append(totalMautKm).toString();
+    }
+
+}
@@ -0,0 +1,41 @@
+package Service;
+
+import Model.GenerationSnapshot;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes every individual of every generation as a line (generation, front, total maut km, max time,
+ * hypervolume of the first front, elapsed time) into a CSV file.
+ */
+public class CsvReporter implements GenerationReporter {
+    private final BufferedWriter writer;
+
+    public CsvReporter(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file);
+        writer.write("generation,front,total_maut_km,max_time,hypervolume,elapsed_millis");
+        writer.newLine();
+    }
+
+    @Override
+    public void report(GenerationSnapshot snapshot) throws IOException {
+        for (int front = 0; front < snapshot.getFrontsCount(); front++) {
+            double[] mautKm = snapshot.getMautKmOfFront(front);
+            double[] time = snapshot.getTimeOfFront(front);
+            for (int i = 0; i < mautKm.length; i++) {
+                writer.write(snapshot.getGeneration() + "," + front + "," + mautKm[i] + "," + time[i] + ","
+                        + snapshot.getHypervolume() + "," + snapshot.getElapsedMillis());
+                writer.newLine();
+            }
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,18 @@
+package Service;
+
+import Model.GenerationSnapshot;
+
+/**
+ * Receives a snapshot of the fronts after the survival selection of every generation. The solver calls a reporter on
+ * one background thread in the order of the generations, so a slow reporter does not stall the search.
+ */
+public interface GenerationReporter {
+
+    void report(GenerationSnapshot snapshot) throws Exception;
+
+    /**
+     * Called on the background thread after the last snapshot.
+     */
+    default void close() throws Exception {
+    }
+}
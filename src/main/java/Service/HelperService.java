@@ -6,11 +6,15 @@ import Model.Transport;
 import Model.Vehicle;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class HelperService {
+    private static final int GEOMETRIC_MEDIAN_MAX_ITERATIONS = 1000;
+    private static final double GEOMETRIC_MEDIAN_TOLERANCE = 0.001;
+    private static final double HYPERVOLUME_REFERENCE_FACTOR = 1.1;
 
     /**
      * Method to create a array of instances Vehicle class according to input vehicle matrix
@@ -83,11 +87,77 @@ public class HelperService {
             numList.add(low);
             low++;
         }
-        Collections.shuffle(numList);
+        Collections.shuffle(numList, ThreadLocalRandom.current());
         return new ArrayList<Integer>( numList.subList(0,Math.min(num+1,numList.size())));
     }
 
+    /**
+     * Method to sort a population into non dominated fronts. The dominance is {@link ObjectivesPoint#isDominance}.
+     * The population is sorted by x, then every individual is put into the first front, which does not dominate it.
+     * Fronts are found by binary search, so the sort needs O(N log N). A population with NaN objectives is sorted
+     * with {@link #pairwiseNonDominanceSort}, because NaN points can not be ordered.
+     *
+     * @param population population to sort
+     * @return fronts, the first front is not dominated. Individuals of a front keep their order in the population
+     */
     public ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> nonDominanceSort(ArrayList<ChromosomeKeyObjectiveValue> population) {
+        int size = population.size();
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        Integer[] sortedIndices = new Integer[size];
+        for(int i = 0 ; i < size ; i++) {
+            xs[i] = population.get(i).getObjectivesPoint().getX();
+            ys[i] = population.get(i).getObjectivesPoint().getY();
+            if(Double.isNaN(xs[i]) || Double.isNaN(ys[i])) {
+                return pairwiseNonDominanceSort(population);
+            }
+            sortedIndices[i] = i;
+        }
+        Arrays.sort(sortedIndices, (a, b) -> xs[a] != xs[b] ? Double.compare(xs[a], xs[b]) : Double.compare(ys[a], ys[b]));
+
+        // the last individual of a front has the smallest y of the front, an individual is dominated by a front, if it is dominated by its last individual
+        int[] lastOfFront = new int[size];
+        int[] frontOfIndividual = new int[size];
+        int frontsCount = 0;
+        for(int k = 0 ; k < size ; k++) {
+            int index = sortedIndices[k];
+            int low = 0;
+            int high = frontsCount;
+            while(low < high) {
+                int middle = (low + high) >>> 1;
+                int last = lastOfFront[middle];
+                if(ys[last] < ys[index] || (ys[last] == ys[index] && xs[last] < xs[index])) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            if(low == frontsCount) {
+                frontsCount++;
+            }
+            lastOfFront[low] = index;
+            frontOfIndividual[index] = low;
+        }
+
+        ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> result = new ArrayList<>();
+        for(int i = 0 ; i < frontsCount ; i++) {
+            result.add(new ArrayList<>());
+        }
+        for(int i = 0 ; i < size ; i++) {
+            result.get(frontOfIndividual[i]).add(population.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Method to sort a population into non dominated fronts by comparing every pair of individuals in O(N^2).
+     * It is used for objectives, which can not be ordered.
+     *
+     * @param population population to sort
+     * @return fronts, the first front is not dominated
+     */
+    public ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> pairwiseNonDominanceSort(ArrayList<ChromosomeKeyObjectiveValue> population) {
         ArrayList<Integer>[] submissiveSetsArray = new ArrayList[population.size()];
         int[] individualDominationCountArray = new int[population.size()];
         ArrayList<Integer>[] frontsArray = new ArrayList[population.size()+1];
@@ -134,147 +204,164 @@ public class HelperService {
         return result;
     }
 
-    public HashMap<Integer,Double> assignCrowdingDistance(ArrayList<ChromosomeKeyObjectiveValue> front) {
-        HashMap<Integer, Double> crowdingDistancesMap = new HashMap<>();
-        for (int i = 0; i < front.size(); i++) {
-            crowdingDistancesMap.put(front.get(i).getChromosomeKey(), 0.0);
+    /**
+     * Method to assign the crowding distance of every individual of a front into an array indexed by the chromosome key.
+     * The first and the last individual of each objective get the distance Double.MAX_VALUE. The front is not reordered.
+     *
+     * @param front             front of individuals
+     * @param crowdingDistances array, which stores the crowding distance at the chromosome key of each individual
+     */
+    public void assignCrowdingDistance(ArrayList<ChromosomeKeyObjectiveValue> front, double[] crowdingDistances) {
+        int size = front.size();
+        if(size == 0) {
+            return;
+        }
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        int[] keys = new int[size];
+        Integer[] order = new Integer[size];
+        for(int i = 0 ; i < size ; i++) {
+            xs[i] = front.get(i).getObjectivesPoint().getX();
+            ys[i] = front.get(i).getObjectivesPoint().getY();
+            keys[i] = front.get(i).getChromosomeKey();
+            crowdingDistances[keys[i]] = 0.0;
+            order[i] = i;
         }
+        addCrowdingDistanceOfObjective(xs, keys, order, crowdingDistances);
+        addCrowdingDistanceOfObjective(ys, keys, order, crowdingDistances);
+    }
 
-        front.sort(Comparator.comparingDouble(a -> a.getObjectivesPoint().getX()));
-        crowdingDistancesMap.put(front.get(0).getChromosomeKey(),Double.MAX_VALUE);
-        crowdingDistancesMap.put(front.get(front.size()-1).getChromosomeKey(),Double.MAX_VALUE);
-        for(int i = 1; i < front.size()-1; i++) {
-            double newDistance = Double.MAX_VALUE;
-            if(crowdingDistancesMap.get(front.get(i).getChromosomeKey())!=Double.MAX_VALUE) {
-                newDistance = crowdingDistancesMap.get(front.get(i).getChromosomeKey()) +
-                        (front.get(i+1).getObjectivesPoint().getX() - front.get(i-1).getObjectivesPoint().getX() )
-                                / (front.get(front.size()-1).getObjectivesPoint().getX() - front.get(0).getObjectivesPoint().getX());
+    private void addCrowdingDistanceOfObjective(double[] values, int[] keys, Integer[] order, double[] crowdingDistances) {
+        // stable sort of the current order, like the sort of the front list
+        Arrays.sort(order, Comparator.comparingDouble(a -> values[a]));
+        int last = order.length - 1;
+        double range = values[order[last]] - values[order[0]];
+        crowdingDistances[keys[order[0]]] = Double.MAX_VALUE;
+        crowdingDistances[keys[order[last]]] = Double.MAX_VALUE;
+        for(int i = 1; i < last; i++) {
+            int key = keys[order[i]];
+            if(crowdingDistances[key] != Double.MAX_VALUE) {
+                crowdingDistances[key] = crowdingDistances[key] + (values[order[i+1]] - values[order[i-1]]) / range;
             }
-            crowdingDistancesMap.put(front.get(i).getChromosomeKey(),newDistance);
         }
+    }
 
-        front.sort(Comparator.comparingDouble(a -> a.getObjectivesPoint().getY()));
-        crowdingDistancesMap.put(front.get(0).getChromosomeKey(),Double.MAX_VALUE);
-        crowdingDistancesMap.put(front.get(front.size()-1).getChromosomeKey(),Double.MAX_VALUE);
-        for(int i = 1; i < front.size()-1; i++) {
-            double newDistance = Double.MAX_VALUE;
-            if(crowdingDistancesMap.get(front.get(i).getChromosomeKey())!=Double.MAX_VALUE) {
-                newDistance = crowdingDistancesMap.get(front.get(i).getChromosomeKey()) +
-                        (front.get(i+1).getObjectivesPoint().getY() - front.get(i-1).getObjectivesPoint().getY() )
-                                / (front.get(front.size()-1).getObjectivesPoint().getY() - front.get(0).getObjectivesPoint().getY());
+    /**
+     * Method to calculate the hypervolume of a front, that is the area, which is dominated by the front and bounded by the
+     * reference point. The points are sorted by x and swept once, so it needs O(n log n). Dominated points and points,
+     * which are not better than the reference point in both objectives, add nothing.
+     *
+     * @param front     individuals, usually the first front
+     * @param reference reference point (x: maut km, y: time)
+     * @return the hypervolume, 0 for an empty front
+     */
+    public double hypervolume(ArrayList<ChromosomeKeyObjectiveValue> front, ObjectivesPoint reference) {
+        int size = front.size();
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        Integer[] order = new Integer[size];
+        for(int i = 0 ; i < size ; i++) {
+            xs[i] = front.get(i).getObjectivesPoint().getX();
+            ys[i] = front.get(i).getObjectivesPoint().getY();
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(a -> xs[a]).thenComparingDouble(a -> ys[a]));
+        double volume = 0;
+        double currentY = reference.getY();
+        for(int i = 0 ; i < size && xs[order[i]] < reference.getX() ; i++) {
+            double y = ys[order[i]];
+            if(y < currentY) {
+                volume = volume + (reference.getX() - xs[order[i]]) * (currentY - y);
+                currentY = y;
             }
-            crowdingDistancesMap.put(front.get(i).getChromosomeKey(),newDistance);
         }
-
-        return crowdingDistancesMap;
+        return volume;
     }
 
-    private double distSum(ObjectivesPoint p,ArrayList<ObjectivesPoint> objectivesPointArrayList)
-    {
-        double sum = 0;
-        for (int i = 0; i < objectivesPointArrayList.size(); i++) {
-            double distx = Math.abs(objectivesPointArrayList.get(i).getX()- p.getX());
-            double disty = Math.abs(objectivesPointArrayList.get(i).getY() - p.getY());
-            sum += Math.sqrt((distx * distx) + (disty * disty));
+    /**
+     * Method to derive a hypervolume reference point from a population: the worst value of each objective increased by
+     * 10 percent, but at least by 1, so the extreme points of the front add to the hypervolume.
+     *
+     * @param fronts all fronts of the population
+     * @return the reference point (x: maut km, y: time)
+     */
+    public ObjectivesPoint hypervolumeReferencePoint(ArrayList<ArrayList<ChromosomeKeyObjectiveValue>> fronts) {
+        double maxX = 0;
+        double maxY = 0;
+        for(ArrayList<ChromosomeKeyObjectiveValue> front : fronts) {
+            for(ChromosomeKeyObjectiveValue individual : front) {
+                maxX = Math.max(maxX, individual.getObjectivesPoint().getX());
+                maxY = Math.max(maxY, individual.getObjectivesPoint().getY());
+            }
         }
-
-        // Return the sum of Euclidean Distances
-        return sum;
+        return new ObjectivesPoint(Math.max(maxX * HYPERVOLUME_REFERENCE_FACTOR, maxX + 1), Math.max(maxY * HYPERVOLUME_REFERENCE_FACTOR, maxY + 1));
     }
 
+    /**
+     * Method to approximate the geometric median of points with the Weiszfeld algorithm. The iteration starts at the center of
+     * gravity and moves to the mean of the points weighted by their inverse distances. A point, which coincides with the
+     * current estimation, is handled by the modification of Vardi and Zhang. Each iteration needs O(n).
+     *
+     * @param objectivesPointArrayList points
+     * @return the geometric median, NaN coordinates if there is no point
+     */
     public ObjectivesPoint geometricMedian(ArrayList<ObjectivesPoint> objectivesPointArrayList)
     {
-
-        // Current x coordinate and y coordinate
-        ObjectivesPoint current_point = new ObjectivesPoint(0, 0);
-
-        for (int i = 0; i < objectivesPointArrayList.size(); i++) {
-            current_point.setX(current_point.getX()+objectivesPointArrayList.get(i).getX());
-            current_point.setY(current_point.getY()+objectivesPointArrayList.get(i).getY());
+        int size = objectivesPointArrayList.size();
+        double x = 0;
+        double y = 0;
+        for (int i = 0; i < size; i++) {
+            x = x + objectivesPointArrayList.get(i).getX();
+            y = y + objectivesPointArrayList.get(i).getY();
         }
-
-        // Here current_point becomes the
-        // Geographic MidPoint
-        // Or Center of Gravity of equal
-        // discrete mass distributions
-        current_point.setX(current_point.getX()/objectivesPointArrayList.size());
-        current_point.setY(current_point.getY()/objectivesPointArrayList.size());
-
-        // minimum_distance becomes sum of
-        // all distances from MidPoint to
-        // all given points
-        double minimum_distance = distSum(current_point,objectivesPointArrayList);
-
-        int k = 0;
-        while (k < objectivesPointArrayList.size()) {
-            for (int i = 0; i < objectivesPointArrayList.size() && i != k; i++) {
-                ObjectivesPoint newpoint = new ObjectivesPoint(0, 0);
-                newpoint.setX(objectivesPointArrayList.get(i).getX());
-                newpoint.setY(objectivesPointArrayList.get(i).getY());
-                double newd = distSum(newpoint, objectivesPointArrayList);
-                if (newd < minimum_distance) {
-                    minimum_distance = newd;
-                    current_point.setX(newpoint.getX());
-                    current_point.setY(newpoint.getY());
+        x = x / size;
+        y = y / size;
+
+        for (int iteration = 0; iteration < GEOMETRIC_MEDIAN_MAX_ITERATIONS; iteration++) {
+            double weightsSum = 0;
+            double weightedX = 0;
+            double weightedY = 0;
+            int coincidentPoints = 0;
+            for (int i = 0; i < size; i++) {
+                double px = objectivesPointArrayList.get(i).getX();
+                double py = objectivesPointArrayList.get(i).getY();
+                double distance = Math.hypot(px - x, py - y);
+                if (distance < GEOMETRIC_MEDIAN_TOLERANCE * 1e-3) {
+                    coincidentPoints++;
                 }
-            }
-            k++;
-        }
-
-        // Assume test_distance to be 1000
-        double test_distance = 1000;
-        int flag = 0;
-        ArrayList<ObjectivesPoint> testPoints = new ArrayList<>();
-        testPoints.add(new ObjectivesPoint(-1,0));
-        testPoints.add(new ObjectivesPoint(0,1));
-        testPoints.add(new ObjectivesPoint(1,0));
-        testPoints.add(new ObjectivesPoint(0,-1));
-        // Test loop for approximation starts here
-        while (test_distance > 0.01) {
-
-            flag = 0;
-
-            // Loop for iterating over all 4 neighbours
-            for (int i = 0; i < 4; i++) {
-
-                // Finding Neighbours done
-                ObjectivesPoint newpoint = new ObjectivesPoint(0, 0);
-                newpoint.setX(current_point.getX()+ test_distance*testPoints.get(i).getX() );
-                newpoint.setY(current_point.getY()+ test_distance*testPoints.get(i).getY() );
-
-                // New sum of Euclidean distances
-                // from the neighbor to the given
-                // data points
-                double newd = distSum(newpoint, objectivesPointArrayList);
-
-                if (newd < minimum_distance) {
-
-                    // Approximating and changing
-                    // current_point
-                    minimum_distance = newd;
-                    current_point.setX(newpoint.getX());
-                    current_point.setY(newpoint.getY());
-                    flag = 1;
-                    break;
+                else {
+                    weightsSum = weightsSum + 1 / distance;
+                    weightedX = weightedX + px / distance;
+                    weightedY = weightedY + py / distance;
                 }
             }
-
-            // This means none of the 4 neighbours
-            // has the new minimum distance, hence
-            // we divide by 2 and reiterate while
-            // loop for better approximation
-            if (flag == 0)
-                test_distance /= 2;
+            if (weightsSum == 0) {
+                break;
+            }
+            double newX = weightedX / weightsSum;
+            double newY = weightedY / weightsSum;
+            if (coincidentPoints > 0) {
+                // the estimation is a point of the input, it is only left if the pull of the other points is stronger than its multiplicity
+                double pull = Math.hypot(newX - x, newY - y) * weightsSum;
+                double step = pull == 0 ? 0 : Math.max(0, 1 - coincidentPoints / pull);
+                newX = x + step * (newX - x);
+                newY = y + step * (newY - y);
+            }
+            double move = Math.hypot(newX - x, newY - y);
+            x = newX;
+            y = newY;
+            if (move < GEOMETRIC_MEDIAN_TOLERANCE) {
+                break;
+            }
         }
-        if(Double.isNaN(current_point.getY()) || Double.isNaN(current_point.getX())) {
-            //System.out.println("                     NAN                        ");
-            for(int i = 0 ; i < objectivesPointArrayList.size() ; i++) {
+        if(Double.isNaN(y) || Double.isNaN(x)) {
+            for(int i = 0 ; i < size ; i++) {
                 if(Double.isNaN(objectivesPointArrayList.get(i).getY()) || Double.isNaN(objectivesPointArrayList.get(i).getX())) {
                     System.out.println(objectivesPointArrayList.get(i));
                 }
             }
         }
-        return current_point;
+        return new ObjectivesPoint(x, y);
     }
 
 
@@ -0,0 +1,371 @@
+package Service;
+
+import Model.IntMatrix;
+import Model.MappedIntMatrix;
+import Model.ProblemInstance;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Reads and writes problem instances in a binary file, whose matrices are memory-mapped when the file is opened.
+ * <p>
+ * Layout (big endian): a header of 64 bytes, the vehicles matrix (6 ints per vehicle), the transports matrix (5 ints per transport),
+ * then the distance block and the maut km block, each aligned to 8 bytes. A block stores the values of a matrix row by row,
+ * only the upper triangle if the matrix is symmetric, as char, short or int values.
+ * <pre>
+ *  0 int  magic            20 byte distance value type     24 long distance block offset
+ *  4 int  version          21 byte distance symmetric      32 long maut km block offset
+ *  8 int  locations count  22 byte maut km value type
+ * 12 int  vehicles count   23 byte maut km symmetric
+ * 16 int  transports count
+ * </pre>
+ */
+public class InstanceFileService {
+    private static final int MAGIC = 0x50445652;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 64;
+    private static final int VEHICLE_COLUMNS = 6;
+    private static final int TRANSPORT_COLUMNS = 5;
+
+    /**
+     * Method to open an instance file. The matrices are mapped read only, so opening needs no time and no heap for them,
+     * only the vehicles and transports are read.
+     *
+     * @param file instance file
+     * @return the instance, whose matrices read the mapped file
+     */
+    public ProblemInstance openInstance(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readFully(channel, 0, HEADER_LENGTH);
+            if (header.getInt(0) != MAGIC) {
+                throw new RuntimeException(file + " is not an instance file");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new RuntimeException("unsupported version " + header.getInt(4) + " of instance file " + file);
+            }
+            int locationsCount = header.getInt(8);
+            int vehiclesCount = header.getInt(12);
+            int transportsCount = header.getInt(16);
+
+            int[][] vehiclesMatrix = readRows(channel, HEADER_LENGTH, vehiclesCount, VEHICLE_COLUMNS);
+            int[][] pickupDeliveriesMatrix = readRows(channel, HEADER_LENGTH + 4L * VEHICLE_COLUMNS * vehiclesCount, transportsCount, TRANSPORT_COLUMNS);
+            // mappings stay valid after the channel is closed
+            IntMatrix distanceMatrix = new MappedIntMatrix(channel, header.getLong(24), locationsCount, header.get(21) != 0, header.get(20));
+            IntMatrix mautKmMatrix = new MappedIntMatrix(channel, header.getLong(32), locationsCount, header.get(23) != 0, header.get(22));
+            return new ProblemInstance(distanceMatrix, mautKmMatrix, vehiclesMatrix, pickupDeliveriesMatrix);
+        }
+    }
+
+    /**
+     * Method to write an instance file from matrices in memory. The matrices keep their layout, their values are stored
+     * with the smallest value type.
+     *
+     * @param file     instance file
+     * @param instance the instance
+     */
+    public void writeInstance(Path file, ProblemInstance instance) throws IOException {
+        IntMatrix distanceMatrix = instance.getDistanceMatrix();
+        IntMatrix mautKmMatrix = instance.getMautKmMatrix();
+        if (distanceMatrix.size() != mautKmMatrix.size()) {
+            throw new RuntimeException("distance matrix has " + distanceMatrix.size() + " locations, maut km matrix has " + mautKmMatrix.size());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = writeRows(channel, instance.getVehiclesMatrix(), instance.getPickupDeliveriesMatrix());
+            byte distanceValueType = valueTypeOf(distanceMatrix);
+            byte mautKmValueType = valueTypeOf(mautKmMatrix);
+            long distanceOffset = align(position);
+            position = writeMatrix(channel, distanceOffset, distanceMatrix, distanceValueType);
+            long mautKmOffset = align(position);
+            writeMatrix(channel, mautKmOffset, mautKmMatrix, mautKmValueType);
+            writeHeader(channel, distanceMatrix.size(), instance.getVehiclesMatrix().length, instance.getPickupDeliveriesMatrix().length,
+                    distanceValueType, distanceMatrix.isSymmetric(), distanceOffset,
+                    mautKmValueType, mautKmMatrix.isSymmetric(), mautKmOffset);
+        }
+    }
+
+    /**
+     * Method to convert comma separated files into an instance file. The matrices are streamed row by row into the file,
+     * so they never have to fit into the heap. A matrix, which turns out to be symmetric, is compacted to its upper triangle.
+     *
+     * @param distanceCsv   distance matrix, one row per line
+     * @param mautKmCsv     maut km matrix, one row per line
+     * @param vehiclesCsv   vehicles, one vehicle per line (code, depot, capacity, deploy cost, speed, load factor)
+     * @param transportsCsv transports, one transport per line (pickup, delivery, active time of pickup, active time of delivery, amount)
+     * @param file          instance file to write
+     */
+    public void convertCsvToBinary(Path distanceCsv, Path mautKmCsv, Path vehiclesCsv, Path transportsCsv, Path file) throws IOException {
+        int[][] vehiclesMatrix = readCsvRows(vehiclesCsv, VEHICLE_COLUMNS);
+        int[][] pickupDeliveriesMatrix = readCsvRows(transportsCsv, TRANSPORT_COLUMNS);
+        int[] distanceRange = scanCsvMatrix(distanceCsv);
+        int[] mautKmRange = scanCsvMatrix(mautKmCsv);
+        if (distanceRange[0] != mautKmRange[0]) {
+            throw new RuntimeException("distance matrix has " + distanceRange[0] + " locations, maut km matrix has " + mautKmRange[0]);
+        }
+        int locationsCount = distanceRange[0];
+        byte distanceValueType = MappedIntMatrix.valueTypeOf(distanceRange[1], distanceRange[2]);
+        byte mautKmValueType = MappedIntMatrix.valueTypeOf(mautKmRange[1], mautKmRange[2]);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = writeRows(channel, vehiclesMatrix, pickupDeliveriesMatrix);
+            long distanceOffset = align(position);
+            position = writeCsvMatrix(channel, distanceOffset, distanceCsv, locationsCount, distanceValueType);
+            boolean distanceSymmetric = compactIfSymmetric(channel, distanceOffset, locationsCount, distanceValueType);
+            position = distanceOffset + MappedIntMatrix.blockLength(locationsCount, distanceSymmetric, distanceValueType);
+            long mautKmOffset = align(position);
+            writeCsvMatrix(channel, mautKmOffset, mautKmCsv, locationsCount, mautKmValueType);
+            boolean mautKmSymmetric = compactIfSymmetric(channel, mautKmOffset, locationsCount, mautKmValueType);
+            channel.truncate(mautKmOffset + MappedIntMatrix.blockLength(locationsCount, mautKmSymmetric, mautKmValueType));
+            writeHeader(channel, locationsCount, vehiclesMatrix.length, pickupDeliveriesMatrix.length,
+                    distanceValueType, distanceSymmetric, distanceOffset, mautKmValueType, mautKmSymmetric, mautKmOffset);
+        }
+    }
+
+    private void writeHeader(FileChannel channel, int locationsCount, int vehiclesCount, int transportsCount,
+                             byte distanceValueType, boolean distanceSymmetric, long distanceOffset,
+                             byte mautKmValueType, boolean mautKmSymmetric, long mautKmOffset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, locationsCount);
+        header.putInt(12, vehiclesCount);
+        header.putInt(16, transportsCount);
+        header.put(20, distanceValueType);
+        header.put(21, (byte) (distanceSymmetric ? 1 : 0));
+        header.put(22, mautKmValueType);
+        header.put(23, (byte) (mautKmSymmetric ? 1 : 0));
+        header.putLong(24, distanceOffset);
+        header.putLong(32, mautKmOffset);
+        writeFully(channel, 0, header);
+    }
+
+    /**
+     * Writes vehicles and transports behind the header and returns the position after them.
+     */
+    private long writeRows(FileChannel channel, int[][] vehiclesMatrix, int[][] pickupDeliveriesMatrix) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 * (VEHICLE_COLUMNS * vehiclesMatrix.length + TRANSPORT_COLUMNS * pickupDeliveriesMatrix.length));
+        putRows(buffer, vehiclesMatrix, VEHICLE_COLUMNS);
+        putRows(buffer, pickupDeliveriesMatrix, TRANSPORT_COLUMNS);
+        buffer.flip();
+        return writeFully(channel, HEADER_LENGTH, buffer);
+    }
+
+    private void putRows(ByteBuffer buffer, int[][] rows, int columns) {
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i].length != columns) {
+                throw new RuntimeException("row " + i + " has " + rows[i].length + " values instead of " + columns);
+            }
+            for (int j = 0; j < columns; j++) {
+                buffer.putInt(rows[i][j]);
+            }
+        }
+    }
+
+    private int[][] readRows(FileChannel channel, long position, int rowsCount, int columns) throws IOException {
+        ByteBuffer buffer = readFully(channel, position, 4 * rowsCount * columns);
+        int[][] rows = new int[rowsCount][columns];
+        for (int i = 0; i < rowsCount; i++) {
+            for (int j = 0; j < columns; j++) {
+                rows[i][j] = buffer.getInt();
+            }
+        }
+        return rows;
+    }
+
+    private long writeMatrix(FileChannel channel, long position, IntMatrix matrix, byte valueType) throws IOException {
+        int size = matrix.size();
+        ByteBuffer row = ByteBuffer.allocate(size * 4);
+        for (int i = 0; i < size; i++) {
+            row.clear();
+            for (int j = matrix.isSymmetric() ? i : 0; j < size; j++) {
+                putValue(row, valueType, matrix.get(i, j));
+            }
+            row.flip();
+            position = writeFully(channel, position, row);
+        }
+        return position;
+    }
+
+    private byte valueTypeOf(IntMatrix matrix) {
+        int minValue = 0;
+        int maxValue = 0;
+        for (int i = 0; i < matrix.size(); i++) {
+            for (int j = matrix.isSymmetric() ? i : 0; j < matrix.size(); j++) {
+                minValue = Math.min(minValue, matrix.get(i, j));
+                maxValue = Math.max(maxValue, matrix.get(i, j));
+            }
+        }
+        return MappedIntMatrix.valueTypeOf(minValue, maxValue);
+    }
+
+    private void putValue(ByteBuffer buffer, byte valueType, int value) {
+        switch (valueType) {
+            case MappedIntMatrix.CHAR_VALUES:
+                buffer.putChar((char) value);
+                break;
+            case MappedIntMatrix.SHORT_VALUES:
+                buffer.putShort((short) value);
+                break;
+            default:
+                buffer.putInt(value);
+        }
+    }
+
+    /**
+     * Reads a matrix file once and returns its number of rows, its smallest and its largest value (at least 0 and at most 0).
+     */
+    private int[] scanCsvMatrix(Path csv) throws IOException {
+        int rowsCount = 0;
+        int minValue = 0;
+        int maxValue = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csv)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                int[] row = parseCsvLine(line);
+                for (int j = 0; j < row.length; j++) {
+                    minValue = Math.min(minValue, row[j]);
+                    maxValue = Math.max(maxValue, row[j]);
+                }
+                rowsCount++;
+            }
+        }
+        return new int[]{rowsCount, minValue, maxValue};
+    }
+
+    private long writeCsvMatrix(FileChannel channel, long position, Path csv, int size, byte valueType) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size * 4);
+        try (BufferedReader reader = Files.newBufferedReader(csv)) {
+            String line;
+            int i = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                int[] row = parseCsvLine(line);
+                if (row.length != size) {
+                    throw new RuntimeException(csv + ": row " + i + " has " + row.length + " values instead of " + size);
+                }
+                buffer.clear();
+                for (int j = 0; j < size; j++) {
+                    putValue(buffer, valueType, row[j]);
+                }
+                buffer.flip();
+                position = writeFully(channel, position, buffer);
+                i++;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Checks if the full matrix block at the offset is symmetric, and moves its upper triangle to the start of the block if it is.
+     * Every value of the triangle moves to a position, which is not behind its old position, so the block is compacted in place.
+     */
+    private boolean compactIfSymmetric(FileChannel channel, long offset, int size, byte valueType) throws IOException {
+        long length = MappedIntMatrix.blockLength(size, false, valueType);
+        if (length > Integer.MAX_VALUE) {
+            // a block of more than 2 GB can not be mapped at once, it is kept as full matrix
+            return false;
+        }
+        MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_WRITE, offset, length);
+        int width = (int) (length / ((long) size * size));
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (getValue(block, valueType, (i * size + j) * width) != getValue(block, valueType, (j * size + i) * width)) {
+                    return false;
+                }
+            }
+        }
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = i; j < size; j++) {
+                int value = getValue(block, valueType, (i * size + j) * width);
+                switch (valueType) {
+                    case MappedIntMatrix.CHAR_VALUES:
+                        block.putChar(position, (char) value);
+                        break;
+                    case MappedIntMatrix.SHORT_VALUES:
+                        block.putShort(position, (short) value);
+                        break;
+                    default:
+                        block.putInt(position, value);
+                }
+                position = position + width;
+            }
+        }
+        block.force();
+        return true;
+    }
+
+    private int getValue(ByteBuffer buffer, byte valueType, int position) {
+        switch (valueType) {
+            case MappedIntMatrix.CHAR_VALUES:
+                return buffer.getChar(position);
+            case MappedIntMatrix.SHORT_VALUES:
+                return buffer.getShort(position);
+            default:
+                return buffer.getInt(position);
+        }
+    }
+
+    private int[][] readCsvRows(Path csv, int columns) throws IOException {
+        ArrayList<int[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csv)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                int[] row = parseCsvLine(line);
+                if (row.length != columns) {
+                    throw new RuntimeException(csv + ": row " + rows.size() + " has " + row.length + " values instead of " + columns);
+                }
+                rows.add(row);
+            }
+        }
+        return rows.toArray(new int[0][]);
+    }
+
+    private int[] parseCsvLine(String line) {
+        String[] values = line.split(",");
+        int[] row = new int[values.length];
+        for (int j = 0; j < values.length; j++) {
+            row[j] = Integer.parseInt(values[j].trim());
+        }
+        return row;
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new RuntimeException("instance file ends at " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer at the position and returns the position after them.
+     */
+    private static long writeFully(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position = position + channel.write(buffer, position);
+        }
+        return position;
+    }
+}
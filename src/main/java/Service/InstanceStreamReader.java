@@ -0,0 +1,328 @@
+package Service;
+
+import Model.Transport;
+import Model.Vehicle;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reads vehicles and transports from a stream in one pass. Every row is parsed from the bytes of the stream and validated,
+ * then the Vehicle or Transport is created directly, without an intermediate matrix or strings.
+ * <p>
+ * Supported formats: comma separated (.csv) and tab separated (.tsv) text with one row per line and an optional header line,
+ * or binary (.bin) with the number of rows followed by the values of the rows as big endian ints.
+ * Columns of vehicles: code, depot, capacity, deploy cost, speed, load factor.
+ * Columns of transports: pickup, delivery, active time of pickup, active time of delivery, transports amount.
+ */
+public class InstanceStreamReader {
+    public enum Format {CSV, TSV, BINARY}
+
+    private static final int VEHICLE_COLUMNS = 6;
+    private static final int TRANSPORT_COLUMNS = 5;
+
+    /**
+     * Method to read vehicles from a file, whose format is given by its extension.
+     *
+     * @param file           vehicles file
+     * @param locationsCount number of locations, the depots are checked against it
+     * @return array of vehicles, the code of a vehicle is its index
+     */
+    public Vehicle[] readVehicles(Path file, int locationsCount) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            return readVehicles(in, formatOf(file), locationsCount);
+        }
+    }
+
+    /**
+     * Method to read transports from a file, whose format is given by its extension.
+     *
+     * @param file           transports file
+     * @param locationsCount number of locations, pickups and deliveries are checked against it
+     * @return array of transports, the code of a transport is its index
+     */
+    public Transport[] readTransports(Path file, int locationsCount) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            return readTransports(in, formatOf(file), locationsCount);
+        }
+    }
+
+    public Vehicle[] readVehicles(InputStream in, Format format, int locationsCount) throws IOException {
+        RowSource rows = rowSourceOf(in, format, VEHICLE_COLUMNS);
+        Vehicle[] vehicles = new Vehicle[initialCapacity(rows)];
+        int[] row = new int[VEHICLE_COLUMNS];
+        int count = 0;
+        while (rows.next(row)) {
+            if (row[0] != count) {
+                throw rows.invalid("code " + row[0] + " of vehicle is not its index " + count);
+            }
+            checkLocation(rows, "depot", row[1], locationsCount);
+            checkNotNegative(rows, "capacity", row[2]);
+            checkNotNegative(rows, "deploy cost", row[3]);
+            // speed and load factor are divisors of ride and service times
+            if (row[4] <= 0 || row[5] <= 0) {
+                throw rows.invalid("speed and load factor must be positive");
+            }
+            if (count == vehicles.length) {
+                vehicles = Arrays.copyOf(vehicles, count * 2);
+            }
+            vehicles[count] = new Vehicle(row[0], row[1], row[2], row[3], row[4], row[5]);
+            count++;
+        }
+        return Arrays.copyOf(vehicles, count);
+    }
+
+    public Transport[] readTransports(InputStream in, Format format, int locationsCount) throws IOException {
+        RowSource rows = rowSourceOf(in, format, TRANSPORT_COLUMNS);
+        Transport[] transports = new Transport[initialCapacity(rows)];
+        int[] row = new int[TRANSPORT_COLUMNS];
+        int count = 0;
+        while (rows.next(row)) {
+            checkLocation(rows, "pickup", row[0], locationsCount);
+            checkLocation(rows, "delivery", row[1], locationsCount);
+            checkNotNegative(rows, "active time of pickup", row[2]);
+            checkNotNegative(rows, "active time of delivery", row[3]);
+            checkNotNegative(rows, "amount", row[4]);
+            if (count == transports.length) {
+                transports = Arrays.copyOf(transports, count * 2);
+            }
+            Transport transport = new Transport(row[0], row[1], row[2], row[3], row[4]);
+            transport.setCode(count);
+            transports[count] = transport;
+            count++;
+        }
+        return Arrays.copyOf(transports, count);
+    }
+
+    public static Format formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) {
+            return Format.CSV;
+        }
+        if (name.endsWith(".tsv") || name.endsWith(".tab")) {
+            return Format.TSV;
+        }
+        if (name.endsWith(".bin")) {
+            return Format.BINARY;
+        }
+        throw new RuntimeException("unknown format of " + file + ", expected .csv, .tsv or .bin");
+    }
+
+    /**
+     * The expected number of rows is only trusted up to a limit, so a corrupt count does not allocate a huge array.
+     */
+    private static int initialCapacity(RowSource rows) {
+        return Math.max(16, Math.min(rows.expectedRows(), 1 << 20));
+    }
+
+    private static void checkLocation(RowSource rows, String column, int location, int locationsCount) {
+        if (location < 0 || location >= locationsCount) {
+            throw rows.invalid(column + " " + location + " is not a location between 0 and " + (locationsCount - 1));
+        }
+    }
+
+    private static void checkNotNegative(RowSource rows, String column, int value) {
+        if (value < 0) {
+            throw rows.invalid(column + " " + value + " is negative");
+        }
+    }
+
+    private static RowSource rowSourceOf(InputStream in, Format format, int columns) throws IOException {
+        switch (format) {
+            case CSV:
+                return new TextRowSource(in, ',', columns);
+            case TSV:
+                return new TextRowSource(in, '\t', columns);
+            default:
+                return new BinaryRowSource(in, columns);
+        }
+    }
+
+    private interface RowSource {
+        /**
+         * @return number of rows if it is known before reading, else 0
+         */
+        int expectedRows();
+
+        /**
+         * Reads the next row into the array.
+         *
+         * @return false if there is no more row
+         */
+        boolean next(int[] row) throws IOException;
+
+        RuntimeException invalid(String message);
+    }
+
+    private static final class BinaryRowSource implements RowSource {
+        private final DataInputStream in;
+        private final int columns;
+        private final int rowsCount;
+        private int rowIndex;
+
+        private BinaryRowSource(InputStream in, int columns) throws IOException {
+            this.in = new DataInputStream(in);
+            this.columns = columns;
+            this.rowsCount = this.in.readInt();
+            if (rowsCount < 0) {
+                throw new RuntimeException("negative number of rows " + rowsCount);
+            }
+        }
+
+        @Override
+        public int expectedRows() {
+            return rowsCount;
+        }
+
+        @Override
+        public boolean next(int[] row) throws IOException {
+            if (rowIndex == rowsCount) {
+                return false;
+            }
+            rowIndex++;
+            try {
+                for (int j = 0; j < columns; j++) {
+                    row[j] = in.readInt();
+                }
+            } catch (EOFException e) {
+                throw invalid("stream ends inside the row");
+            }
+            return true;
+        }
+
+        @Override
+        public RuntimeException invalid(String message) {
+            return new RuntimeException("row " + (rowIndex - 1) + ": " + message);
+        }
+    }
+
+    /**
+     * Parses rows of integers from the bytes of a text stream. A first line, which is not numeric, is skipped as header,
+     * blank lines are skipped.
+     */
+    private static final class TextRowSource implements RowSource {
+        private final InputStream in;
+        private final int delimiter;
+        private final int columns;
+        private final byte[] buffer = new byte[1 << 16];
+        private int bufferPosition;
+        private int bufferLimit;
+        private int line = 1;
+        private int rowLine;
+        private int next;
+
+        private TextRowSource(InputStream in, char delimiter, int columns) throws IOException {
+            this.in = in;
+            this.delimiter = delimiter;
+            this.columns = columns;
+            this.next = read();
+            if (next != -1 && !isNumberStart(skipSpaces())) {
+                skipLine();
+            }
+        }
+
+        @Override
+        public int expectedRows() {
+            return 0;
+        }
+
+        @Override
+        public boolean next(int[] row) throws IOException {
+            while (true) {
+                int c = skipSpaces();
+                if (c == -1) {
+                    return false;
+                }
+                if (c == '\n' || c == '\r') {
+                    skipLine();
+                    continue;
+                }
+                break;
+            }
+            rowLine = line;
+            for (int j = 0; j < columns; j++) {
+                if (j > 0) {
+                    if (skipSpaces() != delimiter) {
+                        throw invalid("expected " + columns + " values");
+                    }
+                    next = read();
+                }
+                row[j] = readInt();
+            }
+            int c = skipSpaces();
+            if (c != -1 && c != '\n' && c != '\r') {
+                throw invalid("expected " + columns + " values");
+            }
+            skipLine();
+            return true;
+        }
+
+        @Override
+        public RuntimeException invalid(String message) {
+            return new RuntimeException("line " + rowLine + ": " + message);
+        }
+
+        private int readInt() throws IOException {
+            int c = skipSpaces();
+            boolean negative = c == '-';
+            if (negative || c == '+') {
+                c = next = read();
+            }
+            if (c < '0' || c > '9') {
+                throw invalid("value is not an integer");
+            }
+            long value = 0;
+            while (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > (long) Integer.MAX_VALUE + 1) {
+                    throw invalid("value is out of the int range");
+                }
+                c = next = read();
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw invalid("value is out of the int range");
+            }
+            return (int) value;
+        }
+
+        private int skipSpaces() throws IOException {
+            while (next == ' ' || (next == '\t' && delimiter != '\t')) {
+                next = read();
+            }
+            return next;
+        }
+
+        private void skipLine() throws IOException {
+            while (next != -1 && next != '\n') {
+                next = read();
+            }
+            if (next == '\n') {
+                line++;
+                next = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (bufferPosition == bufferLimit) {
+                bufferLimit = in.read(buffer, 0, buffer.length);
+                bufferPosition = 0;
+                if (bufferLimit <= 0) {
+                    bufferLimit = 0;
+                    return -1;
+                }
+            }
+            return buffer[bufferPosition++] & 0xFF;
+        }
+
+        private static boolean isNumberStart(int c) {
+            return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '\n' || c == '\r';
+        }
+    }
+}
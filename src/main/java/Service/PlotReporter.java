@@ -0,0 +1,78 @@
+package Service;
+
+import Model.GenerationSnapshot;
+import com.github.sh0nk.matplotlib4j.Plot;
+import com.github.sh0nk.matplotlib4j.PythonExecutionException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plots the fronts with matplotlib. Without an output directory only the final generation is shown in a window,
+ * with an output directory every generation is saved as PNG file without a display.
+ */
+public class PlotReporter implements GenerationReporter {
+    private final Path outputDirectory;
+
+    public PlotReporter() {
+        this(null);
+    }
+
+    public PlotReporter(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    @Override
+    public void report(GenerationSnapshot snapshot) throws IOException, PythonExecutionException {
+        if (outputDirectory == null && !snapshot.isFinalGeneration()) {
+            return;
+        }
+        List<Double> x = new ArrayList<>();
+        List<Double> y = new ArrayList<>();
+        for (int front = 1; front < snapshot.getFrontsCount(); front++) {
+            addPoints(snapshot, front, x, y);
+        }
+        List<Double> x1 = new ArrayList<>();
+        List<Double> y1 = new ArrayList<>();
+        addPoints(snapshot, 0, x1, y1);
+        List<Double> xmg = new ArrayList<>();
+        List<Double> ymg = new ArrayList<>();
+        if (!Double.isNaN(snapshot.getMedian().getX()) && !Double.isNaN(snapshot.getMedian().getY())) {
+            xmg.add(snapshot.getMedian().getX());
+            ymg.add(snapshot.getMedian().getY());
+        }
+
+        Plot plot = Plot.create();
+        plot.xlabel("max time");
+        plot.ylabel("total toll kilometers");
+        plot.plot().add(x, y, "o").label("dominated solutions").color("blue");
+        plot.plot().add(x1, y1, "o").label("dominating solutions").color("red");
+        plot.plot().add(ymg, xmg, "X").label("median of this generation").color("black");
+        plot.legend().loc("best");
+        if (snapshot.isFinalGeneration()) {
+            plot.title("final non dominated solutions");
+        } else {
+            plot.title("solutions of generation number " + snapshot.getGeneration());
+        }
+        if (outputDirectory == null) {
+            plot.show();
+        } else {
+            plot.savefig(outputDirectory.resolve("generation-" + snapshot.getGeneration() + ".png").toString());
+            plot.executeSilently();
+        }
+    }
+
+    /**
+     * Adds the points of a front with the time as x and the maut km as y.
+     */
+    private void addPoints(GenerationSnapshot snapshot, int front, List<Double> x, List<Double> y) {
+        double[] mautKm = snapshot.getMautKmOfFront(front);
+        double[] time = snapshot.getTimeOfFront(front);
+        for (int i = 0; i < mautKm.length; i++) {
+            x.add(time[i]);
+            y.add(mautKm[i]);
+        }
+    }
+}